@@ -0,0 +1,30 @@
+package fr.mrmicky.fastinv.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Run the FastInv benchmarks with the GC profiler, to report the allocation per operation
+ * ({@code gc.alloc.rate.norm}) next to the throughput.
+ * Standard JMH command line options are supported, for example a regex to select benchmarks.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+        throw new UnsupportedOperationException();
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,92 @@
+package fr.mrmicky.fastinv.benchmark;
+
+import fr.mrmicky.fastinv.FastInv;
+import fr.mrmicky.fastinv.FastInvManager;
+import fr.mrmicky.fastinv.FastInvMetrics;
+import fr.mrmicky.fastinv.benchmark.stub.StubInventory;
+import fr.mrmicky.fastinv.benchmark.stub.StubInventoryView;
+import fr.mrmicky.fastinv.benchmark.stub.StubServer;
+import org.bukkit.Material;
+import org.bukkit.event.inventory.ClickType;
+import org.bukkit.event.inventory.InventoryAction;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryOpenEvent;
+import org.bukkit.event.inventory.InventoryType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Click dispatch, from the FastInv listener to the slot handler, and rejection of the clicks in other inventories,
+ * with and without metrics.
+ */
+public class ClickDispatchBenchmark extends FastInvBenchmark {
+
+    @Param({"false", "true"})
+    public boolean metrics;
+
+    private FastInvManager.OpenInventoryListener listener;
+    private InventoryCloseEvent close;
+    private InventoryClickEvent handledClick;
+    private InventoryClickEvent emptyClick;
+    private InventoryClickEvent outsideClick;
+    private InventoryClickEvent otherInventoryClick;
+    private int clicks;
+
+    @Setup
+    public void setup() {
+        FastInvMetrics.setEnabled(this.metrics);
+
+        FastInv inv = new FastInv(owner -> StubInventory.create(owner, 54));
+        inv.addClickHandler(e -> this.clicks++);
+        inv.setItems(inv.getBorders(), StubServer.item(Material.GRAY_STAINED_GLASS_PANE), e -> this.clicks++);
+
+        StubInventoryView view = new StubInventoryView(inv.getInventory());
+        StubInventoryView otherView = new StubInventoryView(StubInventory.create(null, 27));
+
+        // Opening the inventory tracks the viewer and registers the listener of opened inventories
+        StubServer.install();
+        FastInvManager.InventoryListener openListener = new FastInvManager.InventoryListener(StubServer.plugin());
+        InventoryOpenEvent open = new InventoryOpenEvent(view);
+        openListener.onInventoryOpen(open);
+        openListener.onInventoryOpenMonitor(open);
+
+        this.listener = StubServer.listener(FastInvManager.OpenInventoryListener.class);
+        this.close = new InventoryCloseEvent(view);
+        this.handledClick = new InventoryClickEvent(view, InventoryType.SlotType.CONTAINER, 0, ClickType.LEFT, InventoryAction.PICKUP_ALL);
+        this.emptyClick = new InventoryClickEvent(view, InventoryType.SlotType.CONTAINER, 22, ClickType.LEFT, InventoryAction.NOTHING);
+        this.outsideClick = new InventoryClickEvent(view, InventoryType.SlotType.CONTAINER, 60, ClickType.LEFT, InventoryAction.NOTHING);
+        this.otherInventoryClick = new InventoryClickEvent(otherView, InventoryType.SlotType.CONTAINER, 0, ClickType.LEFT, InventoryAction.PICKUP_ALL);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.listener.onInventoryClose(this.close);
+    }
+
+    @Benchmark
+    public int clickHandledSlot() {
+        this.listener.onInventoryClick(this.handledClick);
+        return this.clicks;
+    }
+
+    @Benchmark
+    public int clickEmptySlot() {
+        this.listener.onInventoryClick(this.emptyClick);
+        return this.clicks;
+    }
+
+    @Benchmark
+    public int clickPlayerInventory() {
+        this.listener.onInventoryClick(this.outsideClick);
+        return this.clicks;
+    }
+
+    @Benchmark
+    public int clickOtherInventory() {
+        this.listener.onInventoryClick(this.otherInventoryClick);
+        return this.clicks;
+    }
+}
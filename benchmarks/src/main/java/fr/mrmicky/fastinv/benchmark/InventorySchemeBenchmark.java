@@ -0,0 +1,44 @@
+package fr.mrmicky.fastinv.benchmark;
+
+import fr.mrmicky.fastinv.InventoryScheme;
+import fr.mrmicky.fastinv.PaginatedFastInv;
+import fr.mrmicky.fastinv.benchmark.stub.StubInventory;
+import fr.mrmicky.fastinv.benchmark.stub.StubServer;
+import org.bukkit.Material;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Application of a 6 rows scheme with items, pagination and page navigation characters.
+ */
+public class InventorySchemeBenchmark extends FastInvBenchmark {
+
+    private InventoryScheme scheme;
+    private PaginatedFastInv inv;
+
+    @Setup
+    public void setup() {
+        this.scheme = new InventoryScheme()
+                .masks(
+                        "B B B B B B B B B",
+                        "B I I I I I I I B",
+                        "B I I I I I I I B",
+                        "B I I I I I I I B",
+                        "B I I I I I I I B",
+                        "B B P B C B N B B"
+                )
+                .bindItem('B', StubServer.item(Material.GRAY_STAINED_GLASS_PANE))
+                .bindItem('C', StubServer.item(Material.BARRIER), e -> e.getWhoClicked().closeInventory())
+                .bindPagination('I')
+                .bindPreviousPage('P')
+                .bindNextPage('N');
+
+        this.inv = new PaginatedFastInv(owner -> StubInventory.create(owner, 54));
+    }
+
+    @Benchmark
+    public PaginatedFastInv apply() {
+        this.scheme.apply(this.inv);
+        return this.inv;
+    }
+}
@@ -0,0 +1,49 @@
+package fr.mrmicky.fastinv.benchmark;
+
+import fr.mrmicky.fastinv.ItemBuilder;
+import fr.mrmicky.fastinv.ItemTemplate;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Building of typical menu items.
+ */
+public class ItemBuilderBenchmark extends FastInvBenchmark {
+
+    private ItemTemplate balanceTemplate;
+
+    @Setup
+    public void setup() {
+        this.balanceTemplate = new ItemBuilder(Material.PAPER)
+                .name("Balance: {coins}")
+                .lore("Rank: {rank}", "Click to open the shop")
+                .template();
+    }
+
+    @Benchmark
+    public ItemStack buildFiller() {
+        return new ItemBuilder(Material.GRAY_STAINED_GLASS_PANE).name(" ").build();
+    }
+
+    @Benchmark
+    public ItemStack buildSharedFiller() {
+        return new ItemBuilder(Material.GRAY_STAINED_GLASS_PANE).name(" ").buildShared();
+    }
+
+    @Benchmark
+    public ItemStack buildWithLore() {
+        return new ItemBuilder(Material.PAPER)
+                .name("Balance")
+                .lore("First line", "Second line", "Third line")
+                .addLore("Fourth line", "Fifth line")
+                .flags()
+                .build();
+    }
+
+    @Benchmark
+    public ItemStack renderTemplate() {
+        return this.balanceTemplate.render(key -> key.equals("coins") ? "1500" : "VIP");
+    }
+}
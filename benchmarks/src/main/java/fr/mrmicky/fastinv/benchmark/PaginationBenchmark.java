@@ -0,0 +1,92 @@
+package fr.mrmicky.fastinv.benchmark;
+
+import fr.mrmicky.fastinv.PageContent;
+import fr.mrmicky.fastinv.PageSource;
+import fr.mrmicky.fastinv.PaginatedFastInv;
+import fr.mrmicky.fastinv.benchmark.stub.StubInventory;
+import fr.mrmicky.fastinv.benchmark.stub.StubServer;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Page turns of a paginated inventory, with the default 45 content slots.
+ */
+public class PaginationBenchmark extends FastInvBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int contentSize;
+
+    @Param({"false", "true"})
+    public boolean diffRendering;
+
+    private PaginatedFastInv inv;
+    private PaginatedFastInv sourceInv;
+    private int clicks;
+
+    @Setup
+    public void setup() {
+        this.inv = new PaginatedFastInv(owner -> StubInventory.create(owner, 54));
+        this.inv.setDiffRendering(this.diffRendering);
+
+        ItemStack arrow = StubServer.item(Material.ARROW);
+        this.inv.previousPageItem(45, page -> arrow);
+        this.inv.nextPageItem(53, page -> arrow);
+
+        ItemStack item = StubServer.item(Material.PAPER);
+        for (int i = 0; i < this.contentSize; i++) {
+            this.inv.addContent(item, e -> this.clicks++);
+        }
+
+        this.inv.openPage(1);
+
+        this.sourceInv = new PaginatedFastInv(owner -> StubInventory.create(owner, 54));
+        this.sourceInv.setDiffRendering(this.diffRendering);
+        this.sourceInv.previousPageItem(45, page -> arrow);
+        this.sourceInv.nextPageItem(53, page -> arrow);
+        this.sourceInv.setPageSource(new PageSource() {
+            @Override
+            public int size() {
+                return PaginationBenchmark.this.contentSize;
+            }
+
+            @Override
+            public PageContent load(int offset, int length) {
+                PageContent content = new PageContent(length);
+                for (int i = offset; i < Math.min(offset + length, size()); i++) {
+                    content.add(item, e -> PaginationBenchmark.this.clicks++);
+                }
+                return content;
+            }
+        });
+        this.sourceInv.openPage(1);
+    }
+
+    @Benchmark
+    public int openNextPage() {
+        if (this.inv.isLastPage()) {
+            this.inv.openPage(1);
+        } else {
+            this.inv.openNext();
+        }
+        return this.inv.currentPage();
+    }
+
+    @Benchmark
+    public int openNextPageFromSource() {
+        if (this.sourceInv.isLastPage()) {
+            this.sourceInv.openPage(1);
+        } else {
+            this.sourceInv.openNext();
+        }
+        return this.sourceInv.currentPage();
+    }
+
+    @Benchmark
+    public int openLastPage() {
+        this.inv.openPage(this.inv.isLastPage() ? 1 : this.inv.lastPage());
+        return this.inv.currentPage();
+    }
+}
@@ -0,0 +1,44 @@
+package fr.mrmicky.fastinv.benchmark;
+
+import fr.mrmicky.fastinv.FastInv;
+import fr.mrmicky.fastinv.benchmark.stub.StubInventory;
+import fr.mrmicky.fastinv.benchmark.stub.StubServer;
+import fr.mrmicky.fastinv.components.ScrollbarComponent;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.util.Arrays;
+
+/**
+ * Scrolling of a 6 slots scrollbar. Each operation scrolls down then up, so the scrollbar never reaches its end.
+ */
+public class ScrollbarBenchmark extends FastInvBenchmark {
+
+    @Param({"50", "500"})
+    public int contentSize;
+
+    private ScrollbarComponent scrollbar;
+
+    @Setup
+    public void setup() {
+        FastInv inv = new FastInv(owner -> StubInventory.create(owner, 54));
+        this.scrollbar = new ScrollbarComponent(Arrays.asList(0, 9, 18, 27, 36, 45));
+
+        ItemStack item = StubServer.item(Material.IRON_SWORD);
+        for (int i = 0; i < this.contentSize; i++) {
+            this.scrollbar.addContent(item, null);
+        }
+
+        inv.addComponent(this.scrollbar);
+    }
+
+    @Benchmark
+    public ScrollbarComponent scrollDown() {
+        this.scrollbar.scrollDown();
+        this.scrollbar.scrollUp();
+        return this.scrollbar;
+    }
+}
@@ -0,0 +1,84 @@
+package fr.mrmicky.fastinv.benchmark.stub;
+
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemStack;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+/**
+ * Array backed {@link Inventory} stub. Like the server implementation, items are copied when set.
+ */
+public final class StubInventory implements InvocationHandler {
+
+    private final InventoryHolder holder;
+    private final ItemStack[] contents;
+
+    private StubInventory(InventoryHolder holder, int size) {
+        this.holder = holder;
+        this.contents = new ItemStack[size];
+    }
+
+    /**
+     * Create a chest inventory stub.
+     *
+     * @param holder the holder of the inventory
+     * @param size   the size of the inventory
+     * @return the inventory stub
+     */
+    public static Inventory create(InventoryHolder holder, int size) {
+        return Stubs.proxy(Inventory.class, new StubInventory(holder, size));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "getSize":
+                return this.contents.length;
+            case "getHolder":
+                return this.holder;
+            case "getType":
+                return InventoryType.CHEST;
+            case "getItem":
+                return this.contents[(Integer) args[0]];
+            case "setItem":
+                set((Integer) args[0], (ItemStack) args[1]);
+                return null;
+            case "clear":
+                if (args == null || args.length == 0) {
+                    Arrays.fill(this.contents, null);
+                } else {
+                    set((Integer) args[0], null);
+                }
+                return null;
+            case "getContents":
+            case "getStorageContents":
+                return this.contents.clone();
+            case "setContents":
+            case "setStorageContents":
+                ItemStack[] items = (ItemStack[]) args[0];
+                for (int i = 0; i < this.contents.length; i++) {
+                    set(i, i < items.length ? items[i] : null);
+                }
+                return null;
+            case "firstEmpty":
+                for (int i = 0; i < this.contents.length; i++) {
+                    if (this.contents[i] == null) {
+                        return i;
+                    }
+                }
+                return -1;
+            case "getMaxStackSize":
+                return 64;
+            default:
+                return Stubs.UNHANDLED;
+        }
+    }
+
+    private void set(int slot, ItemStack item) {
+        this.contents[slot] = item == null ? null : item.clone();
+    }
+}
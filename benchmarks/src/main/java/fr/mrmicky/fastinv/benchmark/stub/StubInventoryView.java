@@ -0,0 +1,53 @@
+package fr.mrmicky.fastinv.benchmark.stub;
+
+import org.bukkit.entity.HumanEntity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.InventoryType;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryView;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.UUID;
+
+/**
+ * {@link InventoryView} stub between an inventory and a stub player with a random unique id, used to create inventory events.
+ */
+public final class StubInventoryView extends InventoryView {
+
+    private final Inventory top;
+    private final Inventory bottom;
+    private final Player player;
+
+    public StubInventoryView(Inventory top) {
+        this.top = top;
+        this.bottom = StubInventory.create(null, 36);
+        UUID uniqueId = UUID.randomUUID();
+        this.player = Stubs.proxy(Player.class, (proxy, method, args) ->
+                method.getName().equals("getUniqueId") ? uniqueId : Stubs.UNHANDLED);
+    }
+
+    @Override
+    public @NotNull Inventory getTopInventory() {
+        return this.top;
+    }
+
+    @Override
+    public @NotNull Inventory getBottomInventory() {
+        return this.bottom;
+    }
+
+    @Override
+    public @NotNull HumanEntity getPlayer() {
+        return this.player;
+    }
+
+    @Override
+    public @NotNull InventoryType getType() {
+        return InventoryType.CHEST;
+    }
+
+    @Override
+    public @NotNull String getTitle() {
+        return "Benchmark";
+    }
+}
@@ -0,0 +1,92 @@
+package fr.mrmicky.fastinv.benchmark.stub;
+
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.inventory.ItemFlag;
+import org.bukkit.inventory.meta.ItemMeta;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@link ItemMeta} stub storing the name, lore, enchantments and flags, with copying semantics
+ * similar to the server implementation (lore copied on get and set, whole meta copied on clone).
+ */
+public final class StubItemMeta implements InvocationHandler {
+
+    private String displayName;
+    private List<String> lore;
+    private final Map<Enchantment, Integer> enchants = new HashMap<>();
+    private final Set<ItemFlag> flags = EnumSet.noneOf(ItemFlag.class);
+
+    private StubItemMeta() {
+    }
+
+    /**
+     * Create an empty item meta stub.
+     *
+     * @return the item meta stub
+     */
+    public static ItemMeta create() {
+        return Stubs.proxy(ItemMeta.class, new StubItemMeta());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "setDisplayName":
+                this.displayName = (String) args[0];
+                return null;
+            case "getDisplayName":
+                return this.displayName;
+            case "hasDisplayName":
+                return this.displayName != null;
+            case "setLore":
+                this.lore = args[0] == null ? null : new ArrayList<>((List<String>) args[0]);
+                return null;
+            case "getLore":
+                return this.lore == null ? null : new ArrayList<>(this.lore);
+            case "hasLore":
+                return this.lore != null && !this.lore.isEmpty();
+            case "addEnchant":
+                return this.enchants.put((Enchantment) args[0], (Integer) args[1]) == null;
+            case "removeEnchant":
+                return this.enchants.remove((Enchantment) args[0]) != null;
+            case "getEnchants":
+                return Collections.unmodifiableMap(new HashMap<>(this.enchants));
+            case "hasEnchants":
+                return !this.enchants.isEmpty();
+            case "addItemFlags":
+                this.flags.addAll(Arrays.asList((ItemFlag[]) args[0]));
+                return null;
+            case "removeItemFlags":
+                this.flags.removeAll(Arrays.asList((ItemFlag[]) args[0]));
+                return null;
+            case "getItemFlags":
+                return Collections.unmodifiableSet(EnumSet.copyOf(this.flags));
+            case "hasItemFlag":
+                return this.flags.contains((ItemFlag) args[0]);
+            case "clone":
+                return copy();
+            default:
+                return Stubs.UNHANDLED;
+        }
+    }
+
+    private ItemMeta copy() {
+        StubItemMeta copy = new StubItemMeta();
+        copy.displayName = this.displayName;
+        copy.lore = this.lore == null ? null : new ArrayList<>(this.lore);
+        copy.enchants.putAll(this.enchants);
+        copy.flags.addAll(this.flags);
+        return Stubs.proxy(ItemMeta.class, copy);
+    }
+}
@@ -0,0 +1,117 @@
+package fr.mrmicky.fastinv.benchmark.stub;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.Server;
+import org.bukkit.event.Listener;
+import org.bukkit.inventory.ItemFactory;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginManager;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Logger;
+
+/**
+ * Minimal {@link Server} with an {@link ItemFactory} creating {@link StubItemMeta}, enough to build items,
+ * and a {@link PluginManager} recording the registered listeners.
+ */
+public final class StubServer {
+
+    private static final Logger LOGGER = Logger.getLogger("FastInvBenchmark");
+    private static final List<Listener> LISTENERS = new CopyOnWriteArrayList<>();
+
+    private StubServer() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Install the stub server as the Bukkit server, if no server is already set.
+     */
+    public static synchronized void install() {
+        if (Bukkit.getServer() != null) {
+            return;
+        }
+
+        ItemFactory itemFactory = Stubs.proxy(ItemFactory.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getItemMeta":
+                    return StubItemMeta.create();
+                case "isApplicable":
+                    return true;
+                case "asMetaFor":
+                    return args[0];
+                case "updateMaterial":
+                    return args[1];
+                case "equals":
+                    return args[0] == args[1];
+                default:
+                    return Stubs.UNHANDLED;
+            }
+        });
+
+        // Listeners are only recorded, the benchmarks call them directly
+        PluginManager pluginManager = Stubs.proxy(PluginManager.class, (proxy, method, args) -> {
+            if (method.getName().equals("registerEvents")) {
+                LISTENERS.add((Listener) args[0]);
+                return null;
+            }
+            return Stubs.UNHANDLED;
+        });
+
+        Bukkit.setServer(Stubs.proxy(Server.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getLogger":
+                    return LOGGER;
+                case "getItemFactory":
+                    return itemFactory;
+                case "getPluginManager":
+                    return pluginManager;
+                default:
+                    return Stubs.UNHANDLED;
+            }
+        }));
+    }
+
+    /**
+     * Get the last registered listener of the given class.
+     *
+     * @param listenerClass the class of the listener
+     * @return the listener
+     * @throws IllegalStateException if no listener of this class is registered
+     */
+    public static <T extends Listener> T listener(Class<T> listenerClass) {
+        for (int i = LISTENERS.size() - 1; i >= 0; i--) {
+            if (listenerClass.isInstance(LISTENERS.get(i))) {
+                return listenerClass.cast(LISTENERS.get(i));
+            }
+        }
+        throw new IllegalStateException("No registered " + listenerClass.getSimpleName());
+    }
+
+    /**
+     * Create a plugin stub, only used as an opaque owner.
+     *
+     * @return the plugin stub
+     */
+    public static Plugin plugin() {
+        return Stubs.proxy(Plugin.class, (proxy, method, args) -> {
+            if (method.getName().equals("getLogger")) {
+                return LOGGER;
+            }
+            return Stubs.UNHANDLED;
+        });
+    }
+
+    /**
+     * Create an item, with the stub server installed.
+     *
+     * @param material the material of the item
+     * @return the created item
+     */
+    public static ItemStack item(Material material) {
+        install();
+        return new ItemStack(material);
+    }
+}
@@ -0,0 +1,83 @@
+package fr.mrmicky.fastinv.benchmark.stub;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Helpers to create proxy based stubs of the Bukkit interfaces.
+ * Methods that are not explicitly handled return a default value for their return type.
+ */
+public final class Stubs {
+
+    /**
+     * Marker returned by a handler to use the default value of a method.
+     */
+    public static final Object UNHANDLED = new Object();
+
+    private Stubs() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Create a proxy of the given interface.
+     *
+     * @param type    the interface to implement
+     * @param handler the handler for the methods, returning {@link #UNHANDLED} to use the default value
+     * @return the proxy instance
+     */
+    public static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        Object proxy = Proxy.newProxyInstance(Stubs.class.getClassLoader(), new Class<?>[]{type}, (p, method, args) -> {
+            switch (method.getName()) {
+                case "equals":
+                    if (method.getParameterCount() == 1) {
+                        return p == args[0];
+                    }
+                    break;
+                case "hashCode":
+                    if (method.getParameterCount() == 0) {
+                        return System.identityHashCode(p);
+                    }
+                    break;
+                case "toString":
+                    if (method.getParameterCount() == 0) {
+                        return "Stub" + type.getSimpleName();
+                    }
+                    break;
+            }
+
+            Object result = handler.invoke(p, method, args);
+
+            return result == UNHANDLED ? defaultValue(method) : result;
+        });
+
+        return type.cast(proxy);
+    }
+
+    static Object defaultValue(Method method) {
+        Class<?> type = method.getReturnType();
+
+        if (type.isPrimitive() && type != void.class) {
+            // Default value of a primitive type, from a new one-element array
+            return Array.get(Array.newInstance(type, 1), 0);
+        }
+        if (type == String.class) {
+            return "stub";
+        }
+        if (type == List.class) {
+            return Collections.emptyList();
+        }
+        if (type == Set.class) {
+            return Collections.emptySet();
+        }
+        if (type == Map.class) {
+            return Collections.emptyMap();
+        }
+        return null;
+    }
+}
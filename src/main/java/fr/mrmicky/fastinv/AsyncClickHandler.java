@@ -0,0 +1,32 @@
+package fr.mrmicky.fastinv;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.ClickType;
+
+/**
+ * Click handler running off the main thread, for handlers that query slow backends like databases.
+ * <p>
+ *     The click event is always cancelled, as the decision can't wait for the handler.
+ *     The handler runs on the executor of {@link FastInvManager#getAsyncExecutor()}, and must not
+ *     use the Bukkit API. It returns a continuation, run on the main thread, to update the inventory.
+ *     While the handler runs, other clicks on the same slot are ignored.
+ *     Clicks outside the inventory, or in the inventory of the player, are never handled.
+ * </p>
+ *
+ * @see FastInv#setAsyncItem(int, org.bukkit.inventory.ItemStack, AsyncClickHandler)
+ * @see FastInv#asyncHandler(AsyncClickHandler)
+ */
+@FunctionalInterface
+public interface AsyncClickHandler {
+
+    /**
+     * Handle a click, off the main thread.
+     *
+     * @param player    the player who clicked
+     * @param slot      the clicked raw slot
+     * @param clickType the type of the click
+     * @return the continuation to run on the main thread, or {@code null} if there is nothing to update
+     * @throws Exception if the click can't be handled, the exception is logged and the continuation skipped
+     */
+    Runnable handle(Player player, int slot, ClickType clickType) throws Exception;
+}
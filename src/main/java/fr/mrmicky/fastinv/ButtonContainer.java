@@ -146,6 +146,16 @@ public interface ButtonContainer {
      */
     void clearItems();
 
+    /**
+     * Apply multiple changes at once. Containers backed by an inventory defer the inventory writes
+     * until all the changes are applied, and then write each changed slot only once.
+     *
+     * @param changes the changes to apply
+     */
+    default void batch(Runnable changes) {
+        changes.run();
+    }
+
     /**
      * Add an item to the paginated content with no click handler, the item will be added to the next available slot.
      *
@@ -0,0 +1,83 @@
+package fr.mrmicky.fastinv;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limit of the rate of clicks of each player on a slot, to protect click handlers from click floods.
+ * <p>
+ *     A throttle is a token bucket: each click consumes a token, and tokens are refilled at a fixed interval
+ *     up to the capacity of the bucket. A minimum interval between clicks is a bucket with a capacity of 1.
+ *     The state of a bucket is a single timestamp, so checking a click does not allocate.
+ * </p>
+ * <p>
+ *     Throttles are immutable and can be shared between inventories and slots.
+ * </p>
+ *
+ * @see FastInv#setClickThrottle(ClickThrottle)
+ * @see FastInv#setClickThrottle(int, ClickThrottle)
+ */
+public final class ClickThrottle {
+
+    /**
+     * Value of the state of a slot that has never been clicked.
+     */
+    static final long NEVER_CLICKED = Long.MIN_VALUE;
+
+    private final long intervalNanos;
+    private final long burstNanos;
+
+    private ClickThrottle(long intervalNanos, int capacity) {
+        if (intervalNanos <= 0) {
+            throw new IllegalArgumentException("The interval must be positive: " + intervalNanos);
+        }
+
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity must be at least 1: " + capacity);
+        }
+
+        this.intervalNanos = intervalNanos;
+        this.burstNanos = intervalNanos * (capacity - 1);
+    }
+
+    /**
+     * Create a throttle allowing a click at most once per interval.
+     *
+     * @param interval the minimum interval between two clicks
+     * @param unit     the unit of the interval
+     * @return the throttle
+     */
+    public static ClickThrottle minInterval(long interval, TimeUnit unit) {
+        return new ClickThrottle(unit.toNanos(interval), 1);
+    }
+
+    /**
+     * Create a throttle allowing bursts of clicks, with a token refilled each interval.
+     *
+     * @param capacity       the maximum number of clicks in a burst
+     * @param refillInterval the interval between two refilled tokens
+     * @param unit           the unit of the interval
+     * @return the throttle
+     */
+    public static ClickThrottle tokenBucket(int capacity, long refillInterval, TimeUnit unit) {
+        return new ClickThrottle(unit.toNanos(refillInterval), capacity);
+    }
+
+    /**
+     * Try to consume a token for a click.
+     *
+     * @param state the states of the buckets, each one being the time at which the bucket will be full
+     * @param index the index of the bucket of the clicked slot
+     * @param now   the current time, from {@link System#nanoTime()}
+     * @return true if the click is allowed, false if it is throttled
+     */
+    boolean tryAcquire(long[] state, int index, long now) {
+        long full = state[index];
+
+        if (full != NEVER_CLICKED && full - now > this.burstNanos) {
+            return false;
+        }
+
+        state[index] = (full == NEVER_CLICKED || full - now < 0 ? now : full) + this.intervalNanos;
+        return true;
+    }
+}
@@ -0,0 +1,236 @@
+package fr.mrmicky.fastinv;
+
+import fr.mrmicky.fastinv.components.GuiComponent;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Immutable layout compiled from an {@link InventoryScheme}, with all the masks resolved to slots.
+ * A compiled scheme can be shared between threads and applied to any number of inventories.
+ * The bound items are shared and must not be modified after the compilation.
+ *
+ * @see InventoryScheme#compile()
+ */
+public final class CompiledScheme {
+
+    private static final int[] NO_SLOTS = new int[0];
+
+    private final int size;
+    private final Map<Character, int[]> charSlots;
+    private final Layout layout;
+    private final Layout paginatedLayout;
+
+    CompiledScheme(List<String> masks, Map<Character, ItemStack> items,
+                   Map<Character, Consumer<InventoryClickEvent>> handlers,
+                   Map<Character, Class<? extends GuiComponent>> componentChars,
+                   char paginationChar, char nextPageChar, char previousPageChar) {
+        this.size = masks.size() * 9;
+
+        Map<Character, List<Integer>> slotsByChar = new HashMap<>();
+        for (int line = 0; line < masks.size(); line++) {
+            String mask = masks.get(line);
+
+            for (int slot = 0; slot < mask.length(); slot++) {
+                slotsByChar.computeIfAbsent(mask.charAt(slot), c -> new ArrayList<>()).add(9 * line + slot);
+            }
+        }
+
+        Map<Character, int[]> charSlots = new HashMap<>();
+        slotsByChar.forEach((c, slots) -> charSlots.put(c, toArray(slots)));
+        this.charSlots = Collections.unmodifiableMap(charSlots);
+
+        this.layout = new Layout(masks, this.size, items, handlers, componentChars,
+                paginationChar, nextPageChar, previousPageChar, false);
+        this.paginatedLayout = new Layout(masks, this.size, items, handlers, componentChars,
+                paginationChar, nextPageChar, previousPageChar, true);
+    }
+
+    /**
+     * Apply this layout to the FastInv instance, in a single batch.
+     *
+     * @param inv the FastInv instance to apply this layout to
+     */
+    public void apply(FastInv inv) {
+        Layout layout = inv instanceof PaginatedFastInv ? this.paginatedLayout : this.layout;
+        FlightRecorderEvents.SchemeApplyEvent event = FlightRecorderEvents.beginSchemeApply();
+        long writes = inv.inventoryWrites();
+
+        inv.beginBatch();
+        try {
+            for (int slot : layout.itemSlots) {
+                inv.setItem(slot, layout.items[slot], layout.handlers[slot]);
+            }
+
+            if (inv instanceof PaginatedFastInv) {
+                PaginatedFastInv paginatedInv = (PaginatedFastInv) inv;
+
+                if (layout.nextPageSlot >= 0) {
+                    paginatedInv.nextPageSlot(layout.nextPageSlot);
+                }
+
+                if (layout.previousPageSlot >= 0) {
+                    paginatedInv.previousPageSlot(layout.previousPageSlot);
+                }
+
+                if (!layout.paginationSlots.isEmpty()) {
+                    paginatedInv.setContentSlots(layout.paginationSlots);
+                }
+            }
+
+            for (Map.Entry<Class<? extends GuiComponent>, List<Integer>> entry : layout.componentSlots.entrySet()) {
+                inv.getComponent(entry.getKey())
+                        .ifPresent(component -> component.setSlots(entry.getValue()));
+            }
+        } finally {
+            inv.commitBatch();
+        }
+
+        FlightRecorderEvents.commitSchemeApply(event, inv, inv.inventoryWrites() - writes);
+    }
+
+    /**
+     * Get the number of slots covered by the masks of this layout.
+     *
+     * @return the number of lines multiplied by 9
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Get the slots where the character appears in the masks.
+     *
+     * @param character the character in the masks
+     * @return the slots of the character, in order
+     */
+    public int[] slots(char character) {
+        int[] slots = this.charSlots.get(character);
+        return slots != null ? slots.clone() : NO_SLOTS;
+    }
+
+    /**
+     * Get the slots used for the pagination content.
+     *
+     * @return the pagination slots, in order
+     */
+    public int[] paginationSlots() {
+        return toArray(this.paginatedLayout.paginationSlots);
+    }
+
+    /**
+     * Get the slot of the next page item.
+     *
+     * @return the slot of the next page item, or -1 if there is none
+     */
+    public int nextPageSlot() {
+        return this.paginatedLayout.nextPageSlot;
+    }
+
+    /**
+     * Get the slot of the previous page item.
+     *
+     * @return the slot of the previous page item, or -1 if there is none
+     */
+    public int previousPageSlot() {
+        return this.paginatedLayout.previousPageSlot;
+    }
+
+    /**
+     * Get the slots bound to a component.
+     *
+     * @param componentClass the class of the component
+     * @return the slots of the component, in order
+     */
+    public int[] componentSlots(Class<? extends GuiComponent> componentClass) {
+        List<Integer> slots = this.paginatedLayout.componentSlots.get(componentClass);
+        return slots != null ? toArray(slots) : NO_SLOTS;
+    }
+
+    private static int[] toArray(List<Integer> list) {
+        return list.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Slots resolution for either a {@link FastInv} or a {@link PaginatedFastInv},
+     * as the page navigation characters are only reserved in paginated inventories.
+     */
+    private static final class Layout {
+
+        private final int[] itemSlots;
+        private final ItemStack[] items;
+        private final Consumer<InventoryClickEvent>[] handlers;
+        private final List<Integer> paginationSlots;
+        private final Map<Class<? extends GuiComponent>, List<Integer>> componentSlots;
+        private final int nextPageSlot;
+        private final int previousPageSlot;
+
+        @SuppressWarnings("unchecked")
+        Layout(List<String> masks, int size, Map<Character, ItemStack> items,
+               Map<Character, Consumer<InventoryClickEvent>> handlers,
+               Map<Character, Class<? extends GuiComponent>> componentChars,
+               char paginationChar, char nextPageChar, char previousPageChar, boolean paginated) {
+            List<Integer> itemSlots = new ArrayList<>();
+            List<Integer> paginationSlots = new ArrayList<>();
+            Map<Class<? extends GuiComponent>, List<Integer>> componentSlots = new LinkedHashMap<>();
+            int nextPageSlot = -1;
+            int previousPageSlot = -1;
+
+            this.items = new ItemStack[size];
+            this.handlers = new Consumer[size];
+
+            for (int line = 0; line < masks.size(); line++) {
+                String mask = masks.get(line);
+
+                for (int i = 0; i < mask.length(); i++) {
+                    char c = mask.charAt(i);
+                    int slot = 9 * line + i;
+
+                    if (c == paginationChar) {
+                        paginationSlots.add(slot);
+                        continue;
+                    }
+
+                    if (c == nextPageChar && paginated) {
+                        nextPageSlot = slot;
+                        continue;
+                    }
+
+                    if (c == previousPageChar && paginated) {
+                        previousPageSlot = slot;
+                        continue;
+                    }
+
+                    Class<? extends GuiComponent> componentClass = componentChars.get(c);
+                    if (componentClass != null) {
+                        componentSlots.computeIfAbsent(componentClass, k -> new ArrayList<>()).add(slot);
+                        continue;
+                    }
+
+                    ItemStack item = items.get(c);
+                    if (item != null) {
+                        itemSlots.add(slot);
+                        this.items[slot] = item;
+                        this.handlers[slot] = handlers.get(c);
+                    }
+                }
+            }
+
+            // Component slots are copied by the components, so they can be shared
+            componentSlots.replaceAll((k, v) -> Collections.unmodifiableList(v));
+
+            this.itemSlots = toArray(itemSlots);
+            this.paginationSlots = Collections.unmodifiableList(paginationSlots);
+            this.componentSlots = Collections.unmodifiableMap(componentSlots);
+            this.nextPageSlot = nextPageSlot;
+            this.previousPageSlot = previousPageSlot;
+        }
+    }
+}
@@ -30,13 +30,19 @@ import org.bukkit.event.inventory.*;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.InventoryHolder;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.Plugin;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.logging.Level;
 import java.util.stream.IntStream;
 
 /**
@@ -48,17 +54,94 @@ import java.util.stream.IntStream;
  */
 public class FastInv implements InventoryHolder, ButtonContainer {
 
-    private final Map<Integer, Consumer<InventoryClickEvent>> itemHandlers = new HashMap<>();
     private final Map<Class<? extends GuiComponent>, GuiComponent> components = new HashMap<>();
+    private final List<Runnable> disposeHandlers = new ArrayList<>();
     private final List<Consumer<InventoryOpenEvent>> openHandlers = new ArrayList<>();
     private final List<Consumer<InventoryCloseEvent>> closeHandlers = new ArrayList<>();
     private final List<Consumer<InventoryClickEvent>> clickHandlers = new ArrayList<>();
     private final List<Consumer<InventoryDragEvent>> dragHandlers = new ArrayList<>();
 
+    private final Function<FastInv, Inventory> inventoryFunction;
     private final Inventory inventory;
 
+    /**
+     * Click handlers indexed by raw slot, sized to the inventory.
+     */
+    private final Consumer<InventoryClickEvent>[] itemHandlers;
+    /**
+     * Drag handlers indexed by raw slot, or null if there is none.
+     */
+    private Consumer<InventoryDragEvent>[] slotDragHandlers;
+    /**
+     * Slots with a drag handler, to skip quickly the drags that touch none of them.
+     */
+    private final BitSet dragHandlerSlots = new BitSet();
+    /**
+     * Last items set through this FastInv, indexed by slot.
+     */
+    private final ItemStack[] items;
+    /**
+     * Slots changed during the current batch, and not yet written to the inventory.
+     */
+    private final BitSet dirtySlots;
+    private int batchDepth;
+    /**
+     * Number of slots written to the Bukkit inventory, for the flight recorder events.
+     */
+    private long inventoryWrites;
+
     private Predicate<Player> closeFilter;
 
+    private ClickThrottle clickThrottle;
+    /**
+     * Click throttles overriding the inventory throttle, indexed by slot, or null if there is none.
+     */
+    private ClickThrottle[] slotThrottles;
+    /**
+     * Throttle states of the viewers, indexed by slot, see {@link ClickThrottle#tryAcquire(long[], int, long)}.
+     */
+    private final Map<UUID, long[]> throttleStates = new HashMap<>();
+    /**
+     * Slots with an asynchronous click handler currently running.
+     */
+    private final BitSet pendingAsyncSlots = new BitSet();
+
+    /**
+     * Items refreshed by the tick scheduler of FastInvManager while the inventory is open.
+     */
+    private final List<LiveItem> liveItems = new ArrayList<>();
+    /**
+     * Number of players viewing this inventory, tracked by FastInvManager.
+     */
+    private int viewerCount;
+
+    private boolean disposeOnClose;
+    private boolean disposed;
+    /**
+     * Incremented when the inventory is reset, to drop the results of the asynchronous click handlers started before.
+     */
+    private int resetCount;
+    /**
+     * If the inventory was reset, or released to its pool, during a batch: it is done by the outermost commit,
+     * as the code running the batch still expects to commit it.
+     */
+    private boolean resetPending;
+    private boolean releasePending;
+    /**
+     * If the inventory will be released to its pool on the next tick, see {@link #handleLastViewerClose(boolean)}.
+     */
+    private boolean releaseScheduled;
+    /**
+     * Pool this inventory is returned to when its last viewer closes it, or null if it is not pooled.
+     */
+    FastInvPool pool;
+    FastInvPool.Key poolKey;
+
+    /**
+     * Metrics of the class of this FastInv, resolved on the first event recorded.
+     */
+    private FastInvMetrics.GuiMetrics metrics;
+
     /**
      * Create a new FastInv with a custom size.
      *
@@ -101,6 +184,7 @@ public class FastInv implements InventoryHolder, ButtonContainer {
         this(owner -> Bukkit.createInventory(owner, type, title));
     }
 
+    @SuppressWarnings("unchecked")
     public FastInv(Function<FastInv, Inventory> inventoryFunction) {
         Objects.requireNonNull(inventoryFunction, "inventoryFunction");
         Inventory inv = inventoryFunction.apply(this);
@@ -109,7 +193,56 @@ public class FastInv implements InventoryHolder, ButtonContainer {
             throw new IllegalStateException("Inventory holder is not FastInv, found: " + inv.getHolder());
         }
 
+        this.inventoryFunction = inventoryFunction;
         this.inventory = inv;
+        this.itemHandlers = new Consumer[inv.getSize()];
+        this.items = new ItemStack[inv.getSize()];
+        this.dirtySlots = new BitSet(inv.getSize());
+    }
+
+    /**
+     * Create a new FastInv from a template, by copying its items, handlers and components
+     * instead of running the construction code again.
+     *
+     * @param template the template to copy
+     * @see FastInvTemplate
+     */
+    protected FastInv(FastInvTemplate template) {
+        this(Objects.requireNonNull(template, "template").inventoryFunction);
+
+        beginBatch();
+        try {
+            System.arraycopy(template.items, 0, this.items, 0, this.items.length);
+            System.arraycopy(template.itemHandlers, 0, this.itemHandlers, 0, this.itemHandlers.length);
+            this.dirtySlots.set(0, this.items.length);
+
+            this.openHandlers.addAll(template.openHandlers);
+            this.closeHandlers.addAll(template.closeHandlers);
+            this.clickHandlers.addAll(template.clickHandlers);
+            this.dragHandlers.addAll(template.dragHandlers);
+
+            if (template.slotDragHandlers != null) {
+                for (int slot = 0; slot < template.slotDragHandlers.length; slot++) {
+                    setDragHandler(slot, template.slotDragHandlers[slot]);
+                }
+            }
+
+            this.closeFilter = template.closeFilter;
+            this.disposeHandlers.addAll(template.disposeHandlers);
+            this.disposeOnClose = template.disposeOnClose;
+            this.clickThrottle = template.clickThrottle;
+            this.slotThrottles = template.slotThrottles != null ? template.slotThrottles.clone() : null;
+
+            for (LiveItem liveItem : template.liveItems) {
+                addLiveItem(liveItem.copy());
+            }
+
+            for (GuiComponent component : template.components) {
+                addComponent(component.copy());
+            }
+        } finally {
+            commitBatch();
+        }
     }
 
     /**
@@ -149,7 +282,7 @@ public class FastInv implements InventoryHolder, ButtonContainer {
      */
     @Override
     public void addItem(ItemStack item, Consumer<InventoryClickEvent> handler) {
-        int slot = this.inventory.firstEmpty();
+        int slot = firstEmpty();
         if (slot >= 0) {
             setItem(slot, item, handler);
         }
@@ -160,13 +293,147 @@ public class FastInv implements InventoryHolder, ButtonContainer {
      */
     @Override
     public void setItem(int slot, ItemStack item, Consumer<InventoryClickEvent> handler) {
-        this.inventory.setItem(slot, item);
+        if (this.batchDepth > 0) {
+            this.dirtySlots.set(slot);
+        } else {
+            this.inventory.setItem(slot, item);
+            this.inventoryWrites++;
+        }
+
+        this.items[slot] = item;
+        this.itemHandlers[slot] = handler;
+    }
+
+    /**
+     * Set an item with a click handler, only if the item or the handler differs from the ones
+     * previously set on this slot through this FastInv. Items are compared with {@link ItemStack#equals(Object)}
+     * and handlers by reference, so an item modified in place after being set is not detected.
+     *
+     * @param slot    the slot where to set the item
+     * @param item    the item to set, or {@code null} to remove the item
+     * @param handler the click handler associated to this item
+     * @return {@code true} if the slot was written, {@code false} if it was already up to date
+     */
+    public boolean updateItem(int slot, ItemStack item, Consumer<InventoryClickEvent> handler) {
+        if (this.itemHandlers[slot] == handler && Objects.equals(this.items[slot], item)) {
+            return false;
+        }
+
+        setItem(slot, item, handler);
+        return true;
+    }
+
+    /**
+     * Add an item to a specific slot with a click handler running off the main thread.
+     *
+     * @param slot    the slot where to add the item
+     * @param item    the item to add
+     * @param handler the asynchronous click handler of the item
+     * @see AsyncClickHandler
+     */
+    public void setAsyncItem(int slot, ItemStack item, AsyncClickHandler handler) {
+        setItem(slot, item, asyncHandler(handler));
+    }
+
+    /**
+     * Add an item to a specific slot, refreshed periodically while the inventory is open.
+     *
+     * @param slot     the slot where to add the item
+     * @param period   the number of ticks between two refreshes
+     * @param supplier the supplier of the item
+     * @see #setLiveItem(int, int, Supplier, Consumer)
+     */
+    public void setLiveItem(int slot, int period, Supplier<ItemStack> supplier) {
+        setLiveItem(slot, period, supplier, null);
+    }
+
+    /**
+     * Add an item with a click handler to a specific slot, refreshed periodically while the inventory is open.
+     * <p>
+     *     Live items of all the open inventories are refreshed by a single task of {@link FastInvManager},
+     *     which calls the suppliers that are due once per tick, and only writes the slots whose item changed.
+     *     The supplier can return a new item, or modify and return the same item: the returned item is compared
+     *     with a copy of the last written item.
+     *     The item is set immediately, and the inventory stops being refreshed when its last viewer closes it.
+     * </p>
+     *
+     * @param slot     the slot where to add the item
+     * @param period   the number of ticks between two refreshes
+     * @param supplier the supplier of the item, called on the main thread
+     * @param handler  the click handler associated to the item
+     * @throws IllegalArgumentException if the period is not positive
+     */
+    public void setLiveItem(int slot, int period, Supplier<ItemStack> supplier, Consumer<InventoryClickEvent> handler) {
+        Objects.requireNonNull(supplier, "supplier");
+
+        addLiveItem(new LiveItem(slot, period, supplier, handler));
+    }
+
+    /**
+     * Stop refreshing the item of a slot. The current item is kept.
+     *
+     * @param slot the slot of the live item
+     */
+    public void removeLiveItem(int slot) {
+        this.liveItems.removeIf(liveItem -> liveItem.slot == slot);
 
-        if (handler != null) {
-            this.itemHandlers.put(slot, handler);
+        if (this.liveItems.isEmpty()) {
+            FastInvManager.stopLiveItems(this);
+        }
+    }
+
+    private void addLiveItem(LiveItem liveItem) {
+        this.liveItems.removeIf(other -> other.slot == liveItem.slot);
+        this.liveItems.add(liveItem);
+
+        liveItem.nextTick = FastInvManager.currentTick() + liveItem.period;
+        refreshLiveItem(liveItem);
+
+        if (this.viewerCount > 0) {
+            FastInvManager.startLiveItems(this);
+        }
+    }
+
+    /**
+     * Create a click handler of this inventory running the given handler off the main thread,
+     * for example to bind it in an {@link InventoryScheme}.
+     *
+     * @param handler the asynchronous click handler
+     * @return the click handler starting the asynchronous handler
+     * @see AsyncClickHandler
+     */
+    public Consumer<InventoryClickEvent> asyncHandler(AsyncClickHandler handler) {
+        Objects.requireNonNull(handler, "handler");
+
+        return e -> handleAsyncClick(e, handler);
+    }
+
+    /**
+     * Return if an asynchronous click handler of the slot is running.
+     *
+     * @param slot the slot
+     * @return true if clicks on the slot are currently ignored
+     */
+    public boolean isAsyncClickPending(int slot) {
+        return slot >= 0 && slot < this.itemHandlers.length && this.pendingAsyncSlots.get(slot);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setItems(int slotFrom, int slotTo, ItemStack item, Consumer<InventoryClickEvent> handler) {
+        if (this.batchDepth > 0) {
+            this.dirtySlots.set(slotFrom, slotTo);
         } else {
-            this.itemHandlers.remove(slot);
+            for (int i = slotFrom; i < slotTo; i++) {
+                this.inventory.setItem(i, item);
+            }
+            this.inventoryWrites += Math.max(0, slotTo - slotFrom);
         }
+
+        Arrays.fill(this.items, slotFrom, slotTo, item);
+        Arrays.fill(this.itemHandlers, slotFrom, slotTo, handler);
     }
 
     /**
@@ -174,8 +441,15 @@ public class FastInv implements InventoryHolder, ButtonContainer {
      */
     @Override
     public void removeItem(int slot) {
-        this.inventory.clear(slot);
-        this.itemHandlers.remove(slot);
+        if (this.batchDepth > 0) {
+            this.dirtySlots.set(slot);
+        } else {
+            this.inventory.clear(slot);
+            this.inventoryWrites++;
+        }
+
+        this.items[slot] = null;
+        this.itemHandlers[slot] = null;
     }
 
     /**
@@ -183,8 +457,107 @@ public class FastInv implements InventoryHolder, ButtonContainer {
      */
     @Override
     public void clearItems() {
-        this.inventory.clear();
-        this.itemHandlers.clear();
+        if (this.batchDepth > 0) {
+            this.dirtySlots.set(0, this.items.length);
+        } else {
+            this.inventory.clear();
+            this.inventoryWrites += this.items.length;
+        }
+
+        Arrays.fill(this.items, null);
+        Arrays.fill(this.itemHandlers, null);
+    }
+
+    @Override
+    public void batch(Runnable changes) {
+        beginBatch();
+        try {
+            changes.run();
+        } finally {
+            commitBatch();
+        }
+    }
+
+    /**
+     * Start a batch of changes: until {@link #commitBatch()} is called, the items set or removed
+     * are only staged and the Bukkit inventory is not modified.
+     * Batches can be nested, only the outermost commit writes to the inventory.
+     *
+     * @see #batch(Runnable)
+     */
+    public void beginBatch() {
+        this.batchDepth++;
+    }
+
+    /**
+     * Commit the current batch of changes, writing each changed slot once to the Bukkit inventory,
+     * or all the contents at once if every slot changed.
+     *
+     * @throws IllegalStateException if no batch is in progress
+     * @see #beginBatch()
+     */
+    public void commitBatch() {
+        if (this.batchDepth <= 0) {
+            throw new IllegalStateException("No batch in progress");
+        }
+
+        if (--this.batchDepth > 0) {
+            return;
+        }
+
+        if (this.releasePending) {
+            this.releasePending = false;
+            this.resetPending = false;
+            this.pool.release(this);
+            return;
+        }
+
+        if (this.resetPending) {
+            this.resetPending = false;
+            reset();
+            return;
+        }
+
+        if (this.dirtySlots.isEmpty()) {
+            return;
+        }
+
+        if (this.dirtySlots.cardinality() == this.items.length) {
+            this.inventory.setContents(this.items);
+            this.inventoryWrites += this.items.length;
+        } else {
+            for (int slot = this.dirtySlots.nextSetBit(0); slot >= 0; slot = this.dirtySlots.nextSetBit(slot + 1)) {
+                this.inventory.setItem(slot, this.items[slot]);
+                this.inventoryWrites++;
+            }
+        }
+
+        this.dirtySlots.clear();
+    }
+
+    /**
+     * Return if a batch of changes is in progress.
+     *
+     * @return true if the changes are currently staged and not written to the inventory
+     * @see #beginBatch()
+     */
+    public boolean isBatching() {
+        return this.batchDepth > 0;
+    }
+
+    private int firstEmpty() {
+        if (this.batchDepth == 0) {
+            return this.inventory.firstEmpty();
+        }
+
+        for (int slot = 0; slot < this.items.length; slot++) {
+            ItemStack item = this.dirtySlots.get(slot) ? this.items[slot] : this.inventory.getItem(slot);
+
+            if (item == null) {
+                return slot;
+            }
+        }
+        return -1;
     }
 
     @Override
@@ -226,7 +599,13 @@ public class FastInv implements InventoryHolder, ButtonContainer {
      */
     public void addComponent(GuiComponent component) {
         components.put(component.getClass(), component);
+
+        FlightRecorderEvents.ComponentApplyEvent event = FlightRecorderEvents.beginComponentApply();
+        long writes = this.inventoryWrites;
+
         component.apply(this);
+
+        FlightRecorderEvents.commitComponentApply(event, this, component, this.inventoryWrites - writes);
     }
 
     /**
@@ -239,6 +618,37 @@ public class FastInv implements InventoryHolder, ButtonContainer {
         this.closeFilter = closeFilter;
     }
 
+    /**
+     * Throttle the clicks of each player on the slots with a click handler.
+     * Throttled clicks stay cancelled and the click handler of the slot is not called.
+     * The throttle state of a player is cleared when they close the inventory.
+     *
+     * @param clickThrottle the throttle of the slots, or {@code null} to remove it
+     * @see #setClickThrottle(int, ClickThrottle)
+     */
+    public void setClickThrottle(ClickThrottle clickThrottle) {
+        this.clickThrottle = clickThrottle;
+    }
+
+    /**
+     * Throttle the clicks of each player on a slot, instead of the throttle of the inventory.
+     *
+     * @param slot          the slot to throttle
+     * @param clickThrottle the throttle of the slot, or {@code null} to use the throttle of the inventory
+     * @see #setClickThrottle(ClickThrottle)
+     */
+    public void setClickThrottle(int slot, ClickThrottle clickThrottle) {
+        if (this.slotThrottles == null) {
+            if (clickThrottle == null) {
+                return;
+            }
+
+            this.slotThrottles = new ClickThrottle[this.itemHandlers.length];
+        }
+
+        this.slotThrottles[slot] = clickThrottle;
+    }
+
     /**
      * Add a handler that will be called when the inventory is opened.
      *
@@ -275,13 +685,137 @@ public class FastInv implements InventoryHolder, ButtonContainer {
         this.dragHandlers.add(dragHandler);
     }
 
+    /**
+     * Set the handler that will be called when the player drags an item across the slot.
+     * The slot handlers are called after the inventory drag handlers, and a handler set
+     * on several slots is only called once for each drag.
+     *
+     * @param slot        the raw slot of the inventory
+     * @param dragHandler the handler of the slot, or {@code null} to remove it
+     * @see #addDragHandler(Consumer)
+     */
+    @SuppressWarnings("unchecked")
+    public void setDragHandler(int slot, Consumer<InventoryDragEvent> dragHandler) {
+        if (this.slotDragHandlers == null) {
+            if (dragHandler == null) {
+                return;
+            }
+
+            this.slotDragHandlers = new Consumer[this.itemHandlers.length];
+        }
+
+        this.slotDragHandlers[slot] = dragHandler;
+        this.dragHandlerSlots.set(slot, dragHandler != null);
+    }
+
+    /**
+     * Set the handler that will be called when the player drags an item across any of the slots.
+     *
+     * @param slots       the raw slots of the inventory
+     * @param dragHandler the handler of the slots, or {@code null} to remove it
+     * @see #setDragHandler(int, Consumer)
+     */
+    public void setDragHandler(int[] slots, Consumer<InventoryDragEvent> dragHandler) {
+        for (int slot : slots) {
+            setDragHandler(slot, dragHandler);
+        }
+    }
+
+    /**
+     * Add a handler that will be called when the inventory is disposed.
+     *
+     * @param disposeHandler the handler to add
+     * @see #dispose()
+     */
+    public void addDisposeHandler(Runnable disposeHandler) {
+        this.disposeHandlers.add(disposeHandler);
+    }
+
+    /**
+     * Automatically dispose the inventory when its last viewer closes it, unless the close filter reopens it.
+     * This should be used for inventories that are created for each opening, and never reopened.
+     *
+     * @param disposeOnClose true to dispose the inventory when its last viewer closes it
+     * @see #dispose()
+     */
+    public void setDisposeOnClose(boolean disposeOnClose) {
+        this.disposeOnClose = disposeOnClose;
+    }
+
+    /**
+     * Dispose this inventory: the dispose handlers are called, then the items, the handlers, the components
+     * and the live items are released, so the lambdas and items they reference can be garbage collected
+     * even if this FastInv is still referenced. The results of running asynchronous click handlers are dropped.
+     * A disposed inventory can't be opened anymore. Disposing an inventory twice has no effect.
+     */
+    public void dispose() {
+        if (this.disposed) {
+            return;
+        }
+
+        this.disposed = true;
+        this.disposeHandlers.forEach(Runnable::run);
+
+        reset();
+    }
+
+    /**
+     * Clear the contents, the handlers and the components of this inventory, without disposing it.
+     * The results of running asynchronous click handlers are dropped.
+     * During a batch, the inventory is only cleared by the outermost {@link #commitBatch()}.
+     */
+    void reset() {
+        if (this.batchDepth > 0) {
+            this.resetPending = true;
+            return;
+        }
+
+        FastInvManager.stopLiveItems(this);
+
+        this.resetCount++;
+        this.pendingAsyncSlots.clear();
+        this.dirtySlots.clear();
+        this.inventory.clear();
+        Arrays.fill(this.items, null);
+        Arrays.fill(this.itemHandlers, null);
+
+        this.components.clear();
+        this.disposeHandlers.clear();
+        this.openHandlers.clear();
+        this.closeHandlers.clear();
+        this.clickHandlers.clear();
+        this.dragHandlers.clear();
+        this.slotDragHandlers = null;
+        this.dragHandlerSlots.clear();
+        this.liveItems.clear();
+        this.throttleStates.clear();
+        this.closeFilter = null;
+        this.clickThrottle = null;
+        this.slotThrottles = null;
+        this.disposeOnClose = false;
+    }
+
+    /**
+     * Return if this inventory has been disposed.
+     *
+     * @return true if the inventory is disposed and can't be opened anymore
+     * @see #dispose()
+     */
+    public boolean isDisposed() {
+        return this.disposed;
+    }
+
     /**
      * Open the inventory to the given player.
      *
      * @param player the player to open the inventory to
+     * @throws IllegalStateException if the inventory is disposed
      */
     public void open(Player player) {
-        Objects.requireNonNull(player, "player").openInventory(this.inventory);
+        Objects.requireNonNull(player, "player");
+        checkNotDisposed();
+
+        player.openInventory(this.inventory);
     }
 
     /**
@@ -317,29 +851,295 @@ public class FastInv implements InventoryHolder, ButtonContainer {
         return this.inventory;
     }
 
+    void checkNotDisposed() {
+        if (this.disposed) {
+            throw new IllegalStateException(getClass().getName() + " is disposed");
+        }
+    }
+
+    /**
+     * Called by FastInvManager when the last viewer closed this inventory.
+     *
+     * @param reopening if the close filter is reopening the inventory
+     */
+    void handleLastViewerClose(boolean reopening) {
+        if (this.disposeOnClose && !reopening) {
+            dispose();
+        }
+
+        if (this.pool != null && !reopening && !this.disposed) {
+            if (!this.releaseScheduled) {
+                // Released on the next tick, so the MONITOR listeners of the close event still see the items
+                this.releaseScheduled = true;
+                Bukkit.getScheduler().runTask(FastInvManager.getPlugin(), this::releaseToPool);
+            }
+            return; // Pooled inventories are meant to stay referenced
+        }
+
+        FastInvLeakDetector.watch(this);
+    }
+
+    private void releaseToPool() {
+        this.releaseScheduled = false;
+
+        if (this.pool == null || this.viewerCount > 0 || this.disposed) {
+            return; // Opened again, or disposed, since it was closed
+        }
+
+        if (this.batchDepth > 0) {
+            this.releasePending = true; // Released by the outermost commitBatch()
+        } else {
+            this.pool.release(this);
+        }
+    }
+
+    ItemStack itemAt(int slot) {
+        return this.items[slot];
+    }
+
+    Consumer<InventoryClickEvent> handlerAt(int slot) {
+        return this.itemHandlers[slot];
+    }
+
+    int viewerCount() {
+        return this.viewerCount;
+    }
+
+    int addViewer() {
+        return ++this.viewerCount;
+    }
+
+    int removeViewer() {
+        return this.viewerCount = Math.max(0, this.viewerCount - 1);
+    }
+
+    boolean hasLiveItems() {
+        return !this.liveItems.isEmpty();
+    }
+
+    /**
+     * Refresh the live items that are due, in a single batch.
+     *
+     * @param tick the current tick of the scheduler
+     */
+    void tickLiveItems(long tick) {
+        beginBatch();
+        try {
+            // Indexed loop, as a supplier may add or remove live items
+            for (int i = 0; i < this.liveItems.size(); i++) {
+                LiveItem liveItem = this.liveItems.get(i);
+
+                if (tick < liveItem.nextTick) {
+                    continue;
+                }
+
+                liveItem.nextTick = tick + liveItem.period;
+
+                try {
+                    refreshLiveItem(liveItem);
+                } catch (Exception e) {
+                    FastInvManager.getPlugin().getLogger().log(Level.SEVERE, "Unable to refresh the live item of slot "
+                            + liveItem.slot + " of " + getClass().getName(), e);
+                }
+            }
+        } finally {
+            commitBatch();
+        }
+    }
+
+    /**
+     * Write the item of a live item if it changed since it was last written, or if the slot was overwritten.
+     */
+    private void refreshLiveItem(LiveItem liveItem) {
+        int slot = liveItem.slot;
+        ItemStack item = liveItem.supplier.get();
+
+        if (this.itemHandlers[slot] == liveItem.handler && Objects.equals(this.items[slot], item)
+                && Objects.equals(liveItem.lastItem, item)) {
+            return;
+        }
+
+        setItem(slot, item, liveItem.handler);
+        liveItem.lastItem = item != null ? item.clone() : null;
+    }
+
+    long inventoryWrites() {
+        return this.inventoryWrites;
+    }
+
+    Function<FastInv, Inventory> inventoryFunction() {
+        return this.inventoryFunction;
+    }
+
+    void saveTo(FastInvTemplate template) {
+        template.items = this.items.clone();
+        template.itemHandlers = this.itemHandlers.clone();
+        template.openHandlers = new ArrayList<>(this.openHandlers);
+        template.closeHandlers = new ArrayList<>(this.closeHandlers);
+        template.clickHandlers = new ArrayList<>(this.clickHandlers);
+        template.dragHandlers = new ArrayList<>(this.dragHandlers);
+        template.slotDragHandlers = this.slotDragHandlers != null ? this.slotDragHandlers.clone() : null;
+        template.closeFilter = this.closeFilter;
+        template.disposeHandlers = new ArrayList<>(this.disposeHandlers);
+        template.disposeOnClose = this.disposeOnClose;
+        template.clickThrottle = this.clickThrottle;
+        template.slotThrottles = this.slotThrottles != null ? this.slotThrottles.clone() : null;
+        template.liveItems = new ArrayList<>(this.liveItems.size());
+
+        for (LiveItem liveItem : this.liveItems) {
+            template.liveItems.add(liveItem.copy());
+        }
+        template.components = new ArrayList<>(this.components.size());
+
+        for (GuiComponent component : this.components.values()) {
+            template.components.add(component.copy());
+        }
+    }
+
+    private FastInvMetrics.GuiMetrics metrics() {
+        if (!FastInvMetrics.isEnabled()) {
+            return null;
+        }
+
+        if (this.metrics == null) {
+            this.metrics = FastInvMetrics.of(getClass());
+        }
+        return this.metrics;
+    }
+
     void handleOpen(InventoryOpenEvent e) {
+        FlightRecorderEvents.OpenEvent event = FlightRecorderEvents.beginOpen();
+        FastInvMetrics.GuiMetrics metrics = metrics();
+        if (metrics != null) {
+            metrics.opens.increment();
+        }
+
         onOpen(e);
 
         this.openHandlers.forEach(c -> c.accept(e));
+
+        FlightRecorderEvents.commitOpen(event, this);
     }
 
     boolean handleClose(InventoryCloseEvent e) {
+        FlightRecorderEvents.CloseEvent event = FlightRecorderEvents.beginClose();
+        FastInvMetrics.GuiMetrics metrics = metrics();
+        if (metrics != null) {
+            metrics.closes.increment();
+        }
+
+        this.throttleStates.remove(e.getPlayer().getUniqueId());
+
         onClose(e);
 
         this.closeHandlers.forEach(c -> c.accept(e));
 
+        FlightRecorderEvents.commitClose(event, this);
+
         return this.closeFilter != null && this.closeFilter.test((Player) e.getPlayer());
     }
 
     void handleClick(InventoryClickEvent e) {
+        FlightRecorderEvents.ClickEvent event = FlightRecorderEvents.beginClick();
+        FastInvMetrics.GuiMetrics metrics = metrics();
+        int rawSlot = e.getRawSlot();
+        long time = metrics != null ? metrics.click(rawSlot) : 0;
+
         onClick(e);
 
+        if (metrics != null) {
+            time = metrics.onClick.record(time);
+        }
+
         this.clickHandlers.forEach(c -> c.accept(e));
 
-        Consumer<InventoryClickEvent> clickConsumer = this.itemHandlers.get(e.getRawSlot());
+        if (metrics != null) {
+            time = metrics.clickHandlers.record(time);
+        }
+
+        // Raw slots outside the top inventory (player inventory, outside clicks) have no handler
+        Consumer<InventoryClickEvent> clickConsumer = rawSlot >= 0 && rawSlot < this.itemHandlers.length
+                ? this.itemHandlers[rawSlot] : null;
 
-        if (clickConsumer != null) {
+        if (clickConsumer != null && !isThrottled(e, rawSlot)) {
             clickConsumer.accept(e);
+
+            if (metrics != null) {
+                metrics.slotHandler.record(time);
+            }
+        }
+
+        FlightRecorderEvents.commitClick(event, this, rawSlot, e.getClick());
+    }
+
+    private boolean isThrottled(InventoryClickEvent e, int rawSlot) {
+        ClickThrottle throttle = this.slotThrottles != null && this.slotThrottles[rawSlot] != null
+                ? this.slotThrottles[rawSlot] : this.clickThrottle;
+
+        if (throttle == null) {
+            return false;
+        }
+
+        long[] state = this.throttleStates.get(e.getWhoClicked().getUniqueId());
+
+        if (state == null) {
+            state = new long[this.itemHandlers.length];
+            Arrays.fill(state, ClickThrottle.NEVER_CLICKED);
+            this.throttleStates.put(e.getWhoClicked().getUniqueId(), state);
+        }
+
+        return !throttle.tryAcquire(state, rawSlot, System.nanoTime());
+    }
+
+    private void handleAsyncClick(InventoryClickEvent e, AsyncClickHandler handler) {
+        int slot = e.getRawSlot();
+
+        // Like the slot handlers, raw slots outside the top inventory are not handled
+        if (slot < 0 || slot >= this.itemHandlers.length) {
+            return;
+        }
+
+        // The decision can't wait for the handler
+        e.setCancelled(true);
+
+        if (this.pendingAsyncSlots.get(slot)) {
+            return; // Double click while the handler is running
+        }
+
+        Plugin plugin = FastInvManager.getPlugin();
+        Player player = (Player) e.getWhoClicked();
+        ClickType clickType = e.getClick();
+
+        int resetCount = this.resetCount;
+        this.pendingAsyncSlots.set(slot);
+
+        try {
+            CompletableFuture.supplyAsync(() -> {
+                try {
+                    return handler.handle(player, slot, clickType);
+                } catch (Exception ex) {
+                    throw new CompletionException(ex);
+                }
+            }, FastInvManager.getAsyncExecutor()).whenComplete((continuation, ex) -> Bukkit.getScheduler().runTask(plugin, () -> {
+                // The inventory was disposed or reset in the meantime
+                if (resetCount != this.resetCount) {
+                    return;
+                }
+
+                this.pendingAsyncSlots.clear(slot);
+
+                if (ex != null) {
+                    plugin.getLogger().log(Level.SEVERE, "Error in the async click handler of slot " + slot + " of " + getClass().getName(), ex);
+                    return;
+                }
+
+                if (continuation != null) {
+                    continuation.run();
+                }
+            }));
+        } catch (RejectedExecutionException ex) {
+            this.pendingAsyncSlots.clear(slot);
+            throw ex;
         }
     }
 
@@ -347,5 +1147,29 @@ public class FastInv implements InventoryHolder, ButtonContainer {
         onDrag(e);
 
         this.dragHandlers.forEach(c -> c.accept(e));
+
+        if (this.dragHandlerSlots.isEmpty()) {
+            return;
+        }
+
+        List<Consumer<InventoryDragEvent>> calledHandlers = null;
+
+        for (int rawSlot : e.getRawSlots()) {
+            // Raw slots outside the top inventory have no handler
+            if (rawSlot < 0 || rawSlot >= this.itemHandlers.length || !this.dragHandlerSlots.get(rawSlot)) {
+                continue;
+            }
+
+            Consumer<InventoryDragEvent> dragHandler = this.slotDragHandlers[rawSlot];
+
+            if (calledHandlers == null) {
+                calledHandlers = new ArrayList<>(4);
+            } else if (calledHandlers.contains(dragHandler)) {
+                continue;
+            }
+
+            calledHandlers.add(dragHandler);
+            dragHandler.accept(e);
+        }
     }
 }
@@ -0,0 +1,167 @@
+package fr.mrmicky.fastinv;
+
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Debug tool reporting the FastInv instances that are still referenced long after their last viewer closed them,
+ * for example because a plugin caches them or a handler of another object captures them.
+ * <p>
+ *     Closed inventories are watched with weak references, and a warning is logged for each inventory
+ *     that was neither reopened nor garbage collected after the threshold.
+ *     As an unreachable inventory may not be collected yet, the threshold should be several minutes.
+ *     This has a cost on each close, and should not be enabled in production.
+ * </p>
+ */
+public final class FastInvLeakDetector {
+
+    private static final long CHECK_PERIOD_TICKS = 10 * 20;
+
+    private static final ReferenceQueue<FastInv> QUEUE = new ReferenceQueue<>();
+    /**
+     * Watched inventories, keyed by identity of the inventory. Only accessed from the server thread.
+     */
+    private static final Map<WatchedInventory, WatchedInventory> WATCHED = new HashMap<>();
+
+    private static long thresholdNanos;
+    private static BukkitTask checkTask;
+
+    private FastInvLeakDetector() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Enable the leak detection. FastInv must be registered.
+     *
+     * @param threshold the time after the last close before an inventory still referenced is reported
+     * @param unit      the unit of the threshold
+     */
+    public static void enable(long threshold, TimeUnit unit) {
+        thresholdNanos = unit.toNanos(threshold);
+
+        if (checkTask == null) {
+            checkTask = Bukkit.getScheduler().runTaskTimer(FastInvManager.getPlugin(),
+                    FastInvLeakDetector::check, CHECK_PERIOD_TICKS, CHECK_PERIOD_TICKS);
+        }
+    }
+
+    /**
+     * Disable the leak detection, and stop watching the closed inventories.
+     */
+    public static void disable() {
+        if (checkTask != null) {
+            checkTask.cancel();
+            checkTask = null;
+        }
+
+        WATCHED.clear();
+
+        // Drop the references already enqueued
+        while (QUEUE.poll() != null) {
+            continue;
+        }
+    }
+
+    public static boolean isEnabled() {
+        return checkTask != null;
+    }
+
+    /**
+     * Get the number of closed inventories currently watched.
+     *
+     * @return the number of watched inventories
+     */
+    public static int getWatchedCount() {
+        return WATCHED.size();
+    }
+
+    static void watch(FastInv inv) {
+        if (checkTask == null) {
+            return;
+        }
+
+        WatchedInventory watched = WATCHED.get(new WatchedInventory(inv, null));
+
+        if (watched != null) {
+            watched.closedAt = System.nanoTime();
+            return;
+        }
+
+        watched = new WatchedInventory(inv, QUEUE);
+        WATCHED.put(watched, watched);
+    }
+
+    private static void check() {
+        Reference<? extends FastInv> collected;
+        while ((collected = QUEUE.poll()) != null) {
+            WATCHED.remove(collected);
+        }
+
+        long now = System.nanoTime();
+        Iterator<WatchedInventory> iterator = WATCHED.keySet().iterator();
+
+        while (iterator.hasNext()) {
+            WatchedInventory watched = iterator.next();
+            FastInv inv = watched.get();
+
+            if (inv == null || inv.viewerCount() > 0) {
+                iterator.remove(); // Collected or reopened
+                continue;
+            }
+
+            long elapsed = now - watched.closedAt;
+
+            if (elapsed >= thresholdNanos) {
+                iterator.remove();
+
+                FastInvManager.getPlugin().getLogger().warning("Possible FastInv leak: " + watched.className
+                        + (inv.isDisposed() ? " (disposed)" : "") + " is still referenced "
+                        + TimeUnit.NANOSECONDS.toSeconds(elapsed) + " seconds after its last close");
+            }
+        }
+    }
+
+    private static final class WatchedInventory extends WeakReference<FastInv> {
+
+        private final String className;
+        private final int hash;
+        private long closedAt;
+
+        /**
+         * @param queue the queue to register the reference with, or {@code null} for a lookup key
+         */
+        private WatchedInventory(FastInv inv, ReferenceQueue<FastInv> queue) {
+            super(inv, queue);
+            this.className = inv.getClass().getName();
+            this.hash = System.identityHashCode(inv);
+            this.closedAt = System.nanoTime();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof WatchedInventory)) {
+                return false;
+            }
+
+            // A collected inventory is only equal to its own reference
+            FastInv inv = get();
+            return inv != null && inv == ((WatchedInventory) o).get();
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+}
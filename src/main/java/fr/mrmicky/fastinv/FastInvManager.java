@@ -24,9 +24,11 @@
 package fr.mrmicky.fastinv;
 
 import org.bukkit.Bukkit;
+import org.bukkit.entity.HumanEntity;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
 import org.bukkit.event.Listener;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.inventory.InventoryCloseEvent;
@@ -35,12 +37,29 @@ import org.bukkit.event.inventory.InventoryOpenEvent;
 import org.bukkit.event.server.PluginDisableEvent;
 import org.bukkit.inventory.InventoryHolder;
 import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
 
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Manager for FastInv listeners.
+ * <p>
+ *     Only the open listener is always registered. The FastInv opened by each player are tracked,
+ *     and the click, drag and close listeners are only registered while at least one FastInv is open,
+ *     so the events of other inventories are rejected with a single lookup.
+ *     A single task refreshes the live items of the open inventories, and only runs while there are some.
+ * </p>
  *
  * @author MrMicky
  */
@@ -48,6 +67,28 @@ public final class FastInvManager {
 
     private static final AtomicBoolean REGISTERED = new AtomicBoolean(false);
 
+    /**
+     * FastInv currently opened, by viewer. Only accessed from the server thread.
+     */
+    private static final Map<UUID, FastInv> OPEN_INVENTORIES = new HashMap<>();
+
+    private static Plugin registeredPlugin;
+    private static OpenInventoryListener openInventoryListener;
+
+    /**
+     * Open FastInv with live items, refreshed by the tick task. Only accessed from the server thread.
+     */
+    private static final Set<FastInv> LIVE_INVENTORIES = new LinkedHashSet<>();
+
+    private static BukkitTask liveItemsTask;
+    private static long currentTick;
+
+    private static Executor asyncExecutor;
+    /**
+     * Executor created by FastInv when no executor was set, shut down when the plugin is disabled.
+     */
+    private static ExecutorService defaultAsyncExecutor;
+
     private FastInvManager() {
         throw new UnsupportedOperationException();
     }
@@ -66,9 +107,168 @@ public final class FastInvManager {
             throw new IllegalStateException("FastInv is already registered");
         }
 
+        registeredPlugin = plugin;
         Bukkit.getPluginManager().registerEvents(new InventoryListener(plugin), plugin);
     }
 
+    /**
+     * Get the plugin FastInv is registered with.
+     *
+     * @return the registered plugin
+     * @throws IllegalStateException if FastInv is not registered
+     */
+    public static Plugin getPlugin() {
+        Plugin plugin = registeredPlugin;
+
+        if (plugin == null) {
+            throw new IllegalStateException("FastInv is not registered, use FastInvManager.register(plugin)");
+        }
+        return plugin;
+    }
+
+    /**
+     * Get the FastInv currently opened by a player.
+     *
+     * @param player the player
+     * @return the opened FastInv, or empty if the player has no FastInv open
+     */
+    public static Optional<FastInv> getOpenInventory(HumanEntity player) {
+        return Optional.ofNullable(OPEN_INVENTORIES.get(player.getUniqueId()));
+    }
+
+    /**
+     * Get the number of players currently viewing a FastInv.
+     *
+     * @return the number of tracked viewers
+     */
+    public static int getOpenInventoryCount() {
+        return OPEN_INVENTORIES.size();
+    }
+
+    /**
+     * Get the executor of the {@link AsyncClickHandler}s.
+     * If no executor was set, a default executor is created, using virtual threads when the runtime supports them.
+     *
+     * @return the executor of the asynchronous click handlers
+     */
+    public static synchronized Executor getAsyncExecutor() {
+        if (asyncExecutor != null) {
+            return asyncExecutor;
+        }
+
+        if (defaultAsyncExecutor == null) {
+            defaultAsyncExecutor = createDefaultAsyncExecutor();
+        }
+        return defaultAsyncExecutor;
+    }
+
+    /**
+     * Set the executor of the {@link AsyncClickHandler}s.
+     *
+     * @param executor the executor, or {@code null} to use the default executor
+     */
+    public static synchronized void setAsyncExecutor(Executor executor) {
+        asyncExecutor = executor;
+    }
+
+    private static ExecutorService createDefaultAsyncExecutor() {
+        try {
+            // Java 21+
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger threadCount = new AtomicInteger();
+
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "FastInv Async Click #" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    private static synchronized void shutdownDefaultAsyncExecutor() {
+        if (defaultAsyncExecutor != null) {
+            defaultAsyncExecutor.shutdown();
+            defaultAsyncExecutor = null;
+        }
+    }
+
+    static long currentTick() {
+        return currentTick;
+    }
+
+    static void startLiveItems(FastInv inv) {
+        if (LIVE_INVENTORIES.add(inv) && liveItemsTask == null) {
+            liveItemsTask = Bukkit.getScheduler().runTaskTimer(getPlugin(), FastInvManager::tickLiveItems, 1, 1);
+        }
+    }
+
+    static void stopLiveItems(FastInv inv) {
+        if (LIVE_INVENTORIES.remove(inv) && LIVE_INVENTORIES.isEmpty()) {
+            cancelLiveItemsTask();
+        }
+    }
+
+    private static void tickLiveItems() {
+        currentTick++;
+
+        // Copy, as refreshing an item may close an inventory
+        for (FastInv inv : LIVE_INVENTORIES.toArray(new FastInv[0])) {
+            inv.tickLiveItems(currentTick);
+        }
+    }
+
+    private static void cancelLiveItemsTask() {
+        if (liveItemsTask != null) {
+            liveItemsTask.cancel();
+            liveItemsTask = null;
+        }
+    }
+
+    private static void track(HumanEntity player, FastInv inv, Plugin plugin) {
+        FastInv previous = OPEN_INVENTORIES.put(player.getUniqueId(), inv);
+
+        // The close event of the previous inventory was missed
+        if (previous != null) {
+            removeViewer(previous, false);
+        }
+
+        if (inv.addViewer() == 1 && inv.hasLiveItems()) {
+            startLiveItems(inv);
+        }
+
+        if (openInventoryListener == null) {
+            openInventoryListener = new OpenInventoryListener(plugin);
+            Bukkit.getPluginManager().registerEvents(openInventoryListener, plugin);
+        }
+    }
+
+    private static void untrack(HumanEntity player, boolean reopening) {
+        FastInv inv = OPEN_INVENTORIES.remove(player.getUniqueId());
+
+        if (inv != null) {
+            removeViewer(inv, reopening);
+        }
+
+        if (OPEN_INVENTORIES.isEmpty()) {
+            unregisterOpenInventoryListener();
+        }
+    }
+
+    private static void removeViewer(FastInv inv, boolean reopening) {
+        if (inv.removeViewer() == 0) {
+            stopLiveItems(inv);
+            inv.handleLastViewerClose(reopening);
+        }
+    }
+
+    private static void unregisterOpenInventoryListener() {
+        if (openInventoryListener != null) {
+            HandlerList.unregisterAll(openInventoryListener);
+            openInventoryListener = null;
+        }
+    }
+
     public static final class InventoryListener implements Listener {
 
         private final Plugin plugin;
@@ -78,11 +278,57 @@ public final class FastInvManager {
         }
 
         @EventHandler(priority = EventPriority.HIGHEST)
-        public void onInventoryClick(InventoryClickEvent e) {
+        public void onInventoryOpen(InventoryOpenEvent e) {
             InventoryHolder holder = e.getInventory().getHolder(false);
             if (holder instanceof FastInv) {
                 FastInv inv = (FastInv) holder;
 
+                inv.handleOpen(e);
+            }
+        }
+
+        /**
+         * Track the open once no other listener can cancel it anymore,
+         * as a cancelled open is never followed by a close event.
+         */
+        @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+        public void onInventoryOpenMonitor(InventoryOpenEvent e) {
+            InventoryHolder holder = e.getInventory().getHolder(false);
+            if (holder instanceof FastInv) {
+                track(e.getPlayer(), (FastInv) holder, this.plugin);
+            }
+        }
+
+        @EventHandler
+        public void onPluginDisable(PluginDisableEvent e) {
+            if (e.getPlugin() == this.plugin) {
+                OPEN_INVENTORIES.clear();
+                LIVE_INVENTORIES.clear();
+                cancelLiveItemsTask();
+                FastInvLeakDetector.disable();
+                unregisterOpenInventoryListener();
+                shutdownDefaultAsyncExecutor();
+                registeredPlugin = null;
+                REGISTERED.set(false);
+            }
+        }
+    }
+
+    /**
+     * Listener of the events of opened FastInv, registered only while at least one FastInv is open.
+     */
+    public static final class OpenInventoryListener implements Listener {
+
+        private final Plugin plugin;
+
+        private OpenInventoryListener(Plugin plugin) {
+            this.plugin = plugin;
+        }
+
+        @EventHandler(priority = EventPriority.HIGHEST)
+        public void onInventoryClick(InventoryClickEvent e) {
+            FastInv inv = OPEN_INVENTORIES.get(e.getWhoClicked().getUniqueId());
+            if (inv != null) {
                 boolean wasCancelled = e.isCancelled();
                 e.setCancelled(true);
 
@@ -97,10 +343,8 @@ public final class FastInvManager {
 
         @EventHandler(priority = EventPriority.HIGHEST)
         public void onInventoryDrag(InventoryDragEvent e) {
-            InventoryHolder holder = e.getInventory().getHolder(false);
-            if (holder instanceof FastInv) {
-                FastInv inv = (FastInv) holder;
-
+            FastInv inv = OPEN_INVENTORIES.get(e.getWhoClicked().getUniqueId());
+            if (inv != null) {
                 boolean wasCancelled = e.isCancelled();
                 e.setCancelled(true);
 
@@ -113,33 +357,18 @@ public final class FastInvManager {
             }
         }
 
-        @EventHandler(priority = EventPriority.HIGHEST)
-        public void onInventoryOpen(InventoryOpenEvent e) {
-            InventoryHolder holder = e.getInventory().getHolder(false);
-            if (holder instanceof FastInv) {
-                FastInv inv = (FastInv) holder;
-
-                inv.handleOpen(e);
-            }
-        }
-
         @EventHandler(priority = EventPriority.HIGHEST)
         public void onInventoryClose(InventoryCloseEvent e) {
-            InventoryHolder holder = e.getInventory().getHolder(false);
-            if (holder instanceof FastInv) {
-                FastInv inv = (FastInv) holder;
+            FastInv inv = OPEN_INVENTORIES.get(e.getPlayer().getUniqueId());
+            if (inv != null) {
+                boolean reopen = inv.handleClose(e);
 
-                if (inv.handleClose(e)) {
+                untrack(e.getPlayer(), reopen);
+
+                if (reopen) {
                     Bukkit.getScheduler().runTask(this.plugin, () -> inv.open((Player) e.getPlayer()));
                 }
             }
         }
-
-        @EventHandler
-        public void onPluginDisable(PluginDisableEvent e) {
-            if (e.getPlugin() == this.plugin) {
-                REGISTERED.set(false);
-            }
-        }
     }
 }
@@ -0,0 +1,343 @@
+package fr.mrmicky.fastinv;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of the FastInv instances, aggregated by class: opens, closes, clicks per raw slot,
+ * and the time spent in the click handlers.
+ * <p>
+ *     Metrics are disabled by default. When enabled, the counters are striped {@link LongAdder}s
+ *     and the latencies are recorded in fixed buckets, so recording never allocates or locks.
+ *     When disabled, the only cost is a read of a volatile field per event.
+ * </p>
+ */
+public final class FastInvMetrics {
+
+    /**
+     * Number of raw slots with a click counter: the largest inventory with the player inventory.
+     */
+    static final int MAX_RAW_SLOTS = 6 * 9 + 4 * 9;
+
+    private static final ConcurrentMap<Class<? extends FastInv>, GuiMetrics> METRICS = new ConcurrentHashMap<>();
+
+    private static volatile boolean enabled;
+
+    private FastInvMetrics() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Enable or disable the recording of metrics.
+     * The metrics already recorded are kept when disabled.
+     *
+     * @param enabled true to record metrics
+     */
+    public static void setEnabled(boolean enabled) {
+        FastInvMetrics.enabled = enabled;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Reset all the recorded metrics to zero.
+     */
+    public static void reset() {
+        METRICS.values().forEach(GuiMetrics::reset);
+    }
+
+    /**
+     * Take a snapshot of the recorded metrics, by FastInv class.
+     * Counters are read one by one while they may be updated, so a snapshot is not an atomic view.
+     *
+     * @return the metrics of each FastInv class with recorded events
+     */
+    public static Map<Class<? extends FastInv>, GuiSnapshot> snapshot() {
+        Map<Class<? extends FastInv>, GuiSnapshot> snapshot = new HashMap<>();
+
+        METRICS.forEach((type, metrics) -> snapshot.put(type, metrics.snapshot(type)));
+
+        return Collections.unmodifiableMap(snapshot);
+    }
+
+    static GuiMetrics of(Class<? extends FastInv> type) {
+        return METRICS.computeIfAbsent(type, k -> new GuiMetrics());
+    }
+
+    /**
+     * Live metrics of a FastInv class.
+     */
+    static final class GuiMetrics {
+
+        final LongAdder opens = new LongAdder();
+        final LongAdder closes = new LongAdder();
+        final LongAdder clicks = new LongAdder();
+        final LongAdder[] slotClicks = new LongAdder[MAX_RAW_SLOTS];
+        final LatencyHistogram onClick = new LatencyHistogram();
+        final LatencyHistogram clickHandlers = new LatencyHistogram();
+        final LatencyHistogram slotHandler = new LatencyHistogram();
+
+        private GuiMetrics() {
+            for (int i = 0; i < this.slotClicks.length; i++) {
+                this.slotClicks[i] = new LongAdder();
+            }
+        }
+
+        /**
+         * Record a click on a raw slot.
+         *
+         * @param rawSlot the clicked raw slot
+         * @return the current time, to measure the handlers with {@link LatencyHistogram#record(long)}
+         */
+        long click(int rawSlot) {
+            this.clicks.increment();
+
+            if (rawSlot >= 0 && rawSlot < this.slotClicks.length) {
+                this.slotClicks[rawSlot].increment();
+            }
+            return System.nanoTime();
+        }
+
+        private void reset() {
+            this.opens.reset();
+            this.closes.reset();
+            this.clicks.reset();
+
+            for (LongAdder slotClick : this.slotClicks) {
+                slotClick.reset();
+            }
+
+            this.onClick.reset();
+            this.clickHandlers.reset();
+            this.slotHandler.reset();
+        }
+
+        private GuiSnapshot snapshot(Class<? extends FastInv> type) {
+            long[] slotClicks = new long[this.slotClicks.length];
+            for (int i = 0; i < slotClicks.length; i++) {
+                slotClicks[i] = this.slotClicks[i].sum();
+            }
+
+            return new GuiSnapshot(type, this.opens.sum(), this.closes.sum(), this.clicks.sum(), slotClicks,
+                    this.onClick.snapshot(), this.clickHandlers.snapshot(), this.slotHandler.snapshot());
+        }
+    }
+
+    /**
+     * Latency histogram with fixed buckets, doubling from 1 microsecond to about 1 second, then an overflow bucket.
+     */
+    static final class LatencyHistogram {
+
+        static final int BUCKETS = 22;
+
+        private final LongAdder[] buckets = new LongAdder[BUCKETS];
+        private final LongAdder totalNanos = new LongAdder();
+
+        private LatencyHistogram() {
+            for (int i = 0; i < BUCKETS; i++) {
+                this.buckets[i] = new LongAdder();
+            }
+        }
+
+        /**
+         * Record the time elapsed since the given start time.
+         *
+         * @param start the start time, from {@link System#nanoTime()}
+         * @return the current time, to measure the next operation
+         */
+        long record(long start) {
+            long now = System.nanoTime();
+            long nanos = Math.max(0, now - start);
+
+            this.buckets[bucket(nanos)].increment();
+            this.totalNanos.add(nanos);
+            return now;
+        }
+
+        private static int bucket(long nanos) {
+            long micros = nanos / 1000;
+
+            // Bucket i holds the durations under 2^i microseconds
+            return micros == 0 ? 0 : Math.min(64 - Long.numberOfLeadingZeros(micros), BUCKETS - 1);
+        }
+
+        private static long upperBound(int bucket) {
+            return bucket < BUCKETS - 1 ? 1000L << bucket : Long.MAX_VALUE;
+        }
+
+        private void reset() {
+            for (LongAdder bucket : this.buckets) {
+                bucket.reset();
+            }
+            this.totalNanos.reset();
+        }
+
+        private LatencySnapshot snapshot() {
+            long[] counts = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = this.buckets[i].sum();
+            }
+            return new LatencySnapshot(counts, this.totalNanos.sum());
+        }
+    }
+
+    /**
+     * Metrics of a FastInv class at the time of a {@link #snapshot()}.
+     */
+    public static final class GuiSnapshot {
+
+        private final Class<? extends FastInv> type;
+        private final long opens;
+        private final long closes;
+        private final long clicks;
+        private final long[] slotClicks;
+        private final LatencySnapshot onClickLatency;
+        private final LatencySnapshot clickHandlersLatency;
+        private final LatencySnapshot slotHandlerLatency;
+
+        private GuiSnapshot(Class<? extends FastInv> type, long opens, long closes, long clicks, long[] slotClicks,
+                            LatencySnapshot onClickLatency, LatencySnapshot clickHandlersLatency,
+                            LatencySnapshot slotHandlerLatency) {
+            this.type = type;
+            this.opens = opens;
+            this.closes = closes;
+            this.clicks = clicks;
+            this.slotClicks = slotClicks;
+            this.onClickLatency = onClickLatency;
+            this.clickHandlersLatency = clickHandlersLatency;
+            this.slotHandlerLatency = slotHandlerLatency;
+        }
+
+        public Class<? extends FastInv> getType() {
+            return this.type;
+        }
+
+        public long getOpens() {
+            return this.opens;
+        }
+
+        public long getCloses() {
+            return this.closes;
+        }
+
+        /**
+         * Get the number of clicks, including the clicks outside the inventory.
+         *
+         * @return the number of clicks
+         */
+        public long getClicks() {
+            return this.clicks;
+        }
+
+        /**
+         * Get the number of clicks on a raw slot.
+         *
+         * @param rawSlot the raw slot
+         * @return the number of clicks on this slot, or 0 if the slot is out of range
+         */
+        public long getSlotClicks(int rawSlot) {
+            return rawSlot >= 0 && rawSlot < this.slotClicks.length ? this.slotClicks[rawSlot] : 0;
+        }
+
+        /**
+         * Get the time spent in {@link FastInv#onClick(org.bukkit.event.inventory.InventoryClickEvent)}.
+         *
+         * @return the latency of onClick
+         */
+        public LatencySnapshot getOnClickLatency() {
+            return this.onClickLatency;
+        }
+
+        /**
+         * Get the time spent in the handlers added with {@link FastInv#addClickHandler(java.util.function.Consumer)}.
+         *
+         * @return the latency of the click handlers
+         */
+        public LatencySnapshot getClickHandlersLatency() {
+            return this.clickHandlersLatency;
+        }
+
+        /**
+         * Get the time spent in the handlers of the clicked items.
+         *
+         * @return the latency of the slot handlers, only recorded for the slots with a handler
+         */
+        public LatencySnapshot getSlotHandlerLatency() {
+            return this.slotHandlerLatency;
+        }
+    }
+
+    /**
+     * Latency histogram at the time of a {@link #snapshot()}.
+     */
+    public static final class LatencySnapshot {
+
+        private final long[] counts;
+        private final long count;
+        private final long totalNanos;
+
+        private LatencySnapshot(long[] counts, long totalNanos) {
+            long count = 0;
+            for (long bucketCount : counts) {
+                count += bucketCount;
+            }
+
+            this.counts = counts;
+            this.count = count;
+            this.totalNanos = totalNanos;
+        }
+
+        public long getCount() {
+            return this.count;
+        }
+
+        public long getTotalNanos() {
+            return this.totalNanos;
+        }
+
+        public double getMeanNanos() {
+            return this.count > 0 ? (double) this.totalNanos / this.count : 0;
+        }
+
+        /**
+         * Get an upper bound of the given percentile, from the bucket it falls in.
+         *
+         * @param percentile the percentile, between 0 and 100
+         * @return the upper bound in nanoseconds of the bucket of the percentile,
+         * {@link Long#MAX_VALUE} if it falls in the overflow bucket, or 0 if nothing was recorded
+         */
+        public long getPercentileUpperBound(double percentile) {
+            if (percentile < 0 || percentile > 100) {
+                throw new IllegalArgumentException("Invalid percentile: " + percentile);
+            }
+
+            long rank = (long) Math.ceil(this.count * percentile / 100);
+            long seen = 0;
+
+            for (int i = 0; i < this.counts.length; i++) {
+                seen += this.counts[i];
+
+                if (seen > 0 && seen >= rank) {
+                    return LatencyHistogram.upperBound(i);
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * Get the number of durations recorded in each bucket.
+         * Bucket {@code i} holds the durations under {@code 2^i} microseconds, and the last bucket the longer ones.
+         *
+         * @return a copy of the bucket counts
+         */
+        public long[] getBucketCounts() {
+            return this.counts.clone();
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package fr.mrmicky.fastinv;
+
+import org.bukkit.Bukkit;
+import org.bukkit.event.inventory.InventoryType;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Bounded pool of {@link FastInv} instances, for small menus created and discarded at a high rate,
+ * like confirmation dialogs. Reusing an instance avoids creating a new Bukkit inventory and new handler tables.
+ * <p>
+ *     An acquired inventory is returned to the pool on the tick after its last viewer closed it, so the other
+ *     listeners of the close event still see its items: its items, handlers and components are cleared,
+ *     and the next {@link #acquire(int, String)} with the same size and title reuses it.
+ *     Pooled inventories must be configured again after each acquisition, and must not be used after being closed,
+ *     as they may have been acquired again. The pool must only be used from the server thread.
+ * </p>
+ * <p>
+ *     The number of idle inventories is bounded for each size and title, and in total: when the pool is full,
+ *     the idle inventories of the least recently used size and title are dropped first, so titles containing
+ *     player or item names don't grow the pool without limit.
+ * </p>
+ */
+public final class FastInvPool {
+
+    private static final int DEFAULT_MAX_IDLE = 64;
+
+    private final int maxIdlePerKey;
+    private final int maxIdle;
+    /**
+     * Idle inventories by key, in least recently used order.
+     */
+    private final Map<Key, Deque<FastInv>> idle = new LinkedHashMap<>(16, 0.75F, true);
+    private int idleCount;
+
+    private long hits;
+    private long misses;
+    private long dropped;
+
+    /**
+     * Create a pool holding up to 64 idle inventories in total, or {@code maxIdlePerKey} if it is higher.
+     *
+     * @param maxIdlePerKey the maximum number of idle inventories kept for each size (or type) and title
+     */
+    public FastInvPool(int maxIdlePerKey) {
+        this(maxIdlePerKey, Math.max(maxIdlePerKey, DEFAULT_MAX_IDLE));
+    }
+
+    /**
+     * Create a pool.
+     *
+     * @param maxIdlePerKey the maximum number of idle inventories kept for each size (or type) and title
+     * @param maxIdle       the maximum number of idle inventories kept in total
+     */
+    public FastInvPool(int maxIdlePerKey, int maxIdle) {
+        if (maxIdlePerKey <= 0 || maxIdle <= 0) {
+            throw new IllegalArgumentException("The pool size must be positive: " + maxIdlePerKey + ", " + maxIdle);
+        }
+
+        this.maxIdlePerKey = maxIdlePerKey;
+        this.maxIdle = maxIdle;
+    }
+
+    /**
+     * Acquire an inventory with a custom size and title, reused from the pool if possible.
+     *
+     * @param size  a multiple of 9 as the size of the inventory
+     * @param title the title of the inventory
+     * @return an empty inventory
+     */
+    public FastInv acquire(int size, String title) {
+        return acquire(new Key(size, null, title));
+    }
+
+    /**
+     * Acquire an inventory with a custom type and title, reused from the pool if possible.
+     *
+     * @param type  the type of the inventory
+     * @param title the title of the inventory
+     * @return an empty inventory
+     */
+    public FastInv acquire(InventoryType type, String title) {
+        return acquire(new Key(0, Objects.requireNonNull(type, "type"), title));
+    }
+
+    private FastInv acquire(Key key) {
+        Deque<FastInv> inventories = this.idle.get(key);
+        FastInv inv = inventories != null ? inventories.pollFirst() : null;
+
+        if (inv != null) {
+            if (inventories.isEmpty()) {
+                this.idle.remove(key);
+            }
+
+            this.idleCount--;
+            this.hits++;
+            return inv;
+        }
+
+        this.misses++;
+
+        inv = new FastInv(owner -> key.type != null
+                ? Bukkit.createInventory(owner, key.type, key.title)
+                : Bukkit.createInventory(owner, key.size, key.title));
+        inv.pool = this;
+        inv.poolKey = key;
+        return inv;
+    }
+
+    void release(FastInv inv) {
+        inv.reset();
+
+        Deque<FastInv> inventories = this.idle.get(inv.poolKey);
+
+        if (inventories != null && inventories.size() >= this.maxIdlePerKey) {
+            this.dropped++;
+            inv.pool = null; // Let it be garbage collected
+            return;
+        }
+
+        if (this.idleCount >= this.maxIdle) {
+            evictLeastRecentlyUsed();
+        }
+
+        this.idle.computeIfAbsent(inv.poolKey, k -> new ArrayDeque<>()).addFirst(inv);
+        this.idleCount++;
+    }
+
+    private void evictLeastRecentlyUsed() {
+        Iterator<Deque<FastInv>> iterator = this.idle.values().iterator();
+        Deque<FastInv> inventories = iterator.next();
+
+        inventories.pollLast().pool = null;
+        this.idleCount--;
+        this.dropped++;
+
+        if (inventories.isEmpty()) {
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Remove all the idle inventories from the pool.
+     */
+    public void clear() {
+        this.idle.values().forEach(inventories -> inventories.forEach(inv -> inv.pool = null));
+        this.idle.clear();
+        this.idleCount = 0;
+    }
+
+    /**
+     * Get the number of idle inventories in the pool.
+     *
+     * @return the number of inventories ready to be reused
+     */
+    public int getIdleCount() {
+        return this.idleCount;
+    }
+
+    /**
+     * Get the number of acquisitions that reused an inventory.
+     *
+     * @return the number of pool hits
+     */
+    public long getHits() {
+        return this.hits;
+    }
+
+    /**
+     * Get the number of acquisitions that created a new inventory.
+     *
+     * @return the number of pool misses
+     */
+    public long getMisses() {
+        return this.misses;
+    }
+
+    /**
+     * Get the number of closed inventories not returned to the pool, or evicted from it, because it was full.
+     *
+     * @return the number of dropped inventories
+     */
+    public long getDropped() {
+        return this.dropped;
+    }
+
+    /**
+     * Get the ratio of acquisitions that reused an inventory.
+     *
+     * @return the hit rate between 0 and 1, or 0 if no inventory was acquired
+     */
+    public double getHitRate() {
+        long total = this.hits + this.misses;
+        return total > 0 ? (double) this.hits / total : 0;
+    }
+
+    static final class Key {
+
+        private final int size;
+        private final InventoryType type;
+        private final String title;
+
+        private Key(int size, InventoryType type, String title) {
+            this.size = size;
+            this.type = type;
+            this.title = title;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+
+            Key key = (Key) o;
+            return this.size == key.size && this.type == key.type && Objects.equals(this.title, key.title);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.size, this.type, this.title);
+        }
+    }
+}
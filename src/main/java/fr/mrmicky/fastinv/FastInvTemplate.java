@@ -0,0 +1,138 @@
+package fr.mrmicky.fastinv;
+
+import fr.mrmicky.fastinv.components.GuiComponent;
+import org.bukkit.entity.Player;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.event.inventory.InventoryOpenEvent;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+
+/**
+ * Frozen copy of a configured {@link FastInv}, used to create new instances without running the construction code
+ * again: the items, the click handlers, the components and the pagination settings are copied from the template.
+ * <p>
+ *     Templates of a {@link FastInv} or a {@link PaginatedFastInv} create instances with {@link #create()}.
+ *     Templates of a subclass must create instances of the subclass with {@link #create(Function)},
+ *     from a constructor calling {@link FastInv#FastInv(FastInvTemplate)}, to keep the overridden methods
+ *     like {@link FastInv#onClick(InventoryClickEvent)}.
+ *     The paginated content is shared with the template until an instance modifies it.
+ * </p>
+ * <p>
+ *     The handlers and the page item functions are copied as is: the ones referencing the frozen inventory,
+ *     for example with {@code this} or {@link PaginatedFastInv#lastPage()}, still reference it
+ *     and must be set again by the constructor of the subclass.
+ * </p>
+ * <p>
+ *     Components are copied with {@link GuiComponent#copy()}, and the items are shared between the instances,
+ *     so they must not be modified in place after freezing.
+ * </p>
+ */
+public final class FastInvTemplate {
+
+    final Function<FastInv, Inventory> inventoryFunction;
+    final Class<? extends FastInv> type;
+    final boolean paginated;
+
+    ItemStack[] items;
+    Consumer<InventoryClickEvent>[] itemHandlers;
+    List<GuiComponent> components;
+    List<Consumer<InventoryOpenEvent>> openHandlers;
+    List<Consumer<InventoryCloseEvent>> closeHandlers;
+    List<Consumer<InventoryClickEvent>> clickHandlers;
+    List<Consumer<InventoryDragEvent>> dragHandlers;
+    Consumer<InventoryDragEvent>[] slotDragHandlers;
+    Predicate<Player> closeFilter;
+    List<Runnable> disposeHandlers;
+    boolean disposeOnClose;
+    ClickThrottle clickThrottle;
+    ClickThrottle[] slotThrottles;
+    List<LiveItem> liveItems;
+
+    PageSource pageSource;
+    List<ItemStack> contentItems;
+    List<Consumer<InventoryClickEvent>> contentHandlers;
+    List<Integer> contentSlots;
+    int page;
+    IntFunction<ItemStack> previousPageItem;
+    IntFunction<ItemStack> nextPageItem;
+    int previousPageSlot;
+    int nextPageSlot;
+    boolean diffRendering;
+    Executor asyncExecutor;
+    ItemStack loadingItem;
+    int pageCacheCapacity;
+    int prefetchDistance;
+
+    private FastInvTemplate(FastInv inv) {
+        this.inventoryFunction = inv.inventoryFunction();
+        this.type = inv.getClass();
+        this.paginated = inv instanceof PaginatedFastInv;
+
+        inv.saveTo(this);
+    }
+
+    /**
+     * Freeze the current state of a FastInv into a template.
+     * Later modifications of the FastInv are not applied to the template.
+     *
+     * @param inv the configured FastInv to freeze
+     * @return the template
+     * @throws UnsupportedOperationException if a component of the inventory does not support copies
+     */
+    public static FastInvTemplate of(FastInv inv) {
+        return new FastInvTemplate(Objects.requireNonNull(inv, "inv"));
+    }
+
+    /**
+     * Create a new FastInv, or PaginatedFastInv if the frozen inventory was paginated, from this template.
+     *
+     * @return the new instance
+     * @throws IllegalStateException if the frozen inventory is a subclass, use {@link #create(Function)} instead
+     */
+    public FastInv create() {
+        if (this.type != FastInv.class && this.type != PaginatedFastInv.class) {
+            throw new IllegalStateException("The template of " + this.type.getName()
+                    + " must create instances with create(Function) to keep the subclass");
+        }
+
+        return this.paginated ? new PaginatedFastInv(this) : new FastInv(this);
+    }
+
+    /**
+     * Create a new instance of a subclass from this template, for example {@code template.create(ShopInventory::new)}.
+     *
+     * @param constructor the constructor of the subclass, calling {@link FastInv#FastInv(FastInvTemplate)}
+     * @param <T>         the type of the subclass
+     * @return the new instance
+     * @throws IllegalArgumentException if the created instance isn't of the class of the frozen inventory
+     */
+    public <T extends FastInv> T create(Function<FastInvTemplate, T> constructor) {
+        T inv = constructor.apply(this);
+
+        if (inv.getClass() != this.type) {
+            throw new IllegalArgumentException("The template of " + this.type.getName()
+                    + " can't create an instance of " + inv.getClass().getName());
+        }
+
+        return inv;
+    }
+
+    /**
+     * Return if instances of this template are paginated.
+     *
+     * @return true if the frozen inventory was a {@link PaginatedFastInv}
+     */
+    public boolean isPaginated() {
+        return this.paginated;
+    }
+}
@@ -0,0 +1,253 @@
+package fr.mrmicky.fastinv;
+
+import fr.mrmicky.fastinv.components.GuiComponent;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import org.bukkit.event.inventory.ClickType;
+
+/**
+ * Java Flight Recorder events of the FastInv lifecycle and rendering.
+ * <p>
+ *     Events are only created when the {@code jdk.jfr} API is available at runtime, so the event classes
+ *     are never loaded on older Java 8 runtimes. When no recording enables them, events are not committed,
+ *     and their allocation is usually removed by the JIT compiler.
+ * </p>
+ * <p>
+ *     The slot writes of an event are the writes to the Bukkit inventory during the operation,
+ *     or 0 if they are deferred to an enclosing batch.
+ * </p>
+ */
+final class FlightRecorderEvents {
+
+    static final boolean AVAILABLE = isAvailable();
+
+    private FlightRecorderEvents() {
+        throw new UnsupportedOperationException();
+    }
+
+    static OpenEvent beginOpen() {
+        if (!AVAILABLE) {
+            return null;
+        }
+
+        OpenEvent event = new OpenEvent();
+        event.begin();
+        return event;
+    }
+
+    static void commitOpen(OpenEvent event, FastInv inv) {
+        if (event != null) {
+            event.end();
+
+            if (event.shouldCommit()) {
+                event.guiClass = inv.getClass().getName();
+                event.commit();
+            }
+        }
+    }
+
+    static CloseEvent beginClose() {
+        if (!AVAILABLE) {
+            return null;
+        }
+
+        CloseEvent event = new CloseEvent();
+        event.begin();
+        return event;
+    }
+
+    static void commitClose(CloseEvent event, FastInv inv) {
+        if (event != null) {
+            event.end();
+
+            if (event.shouldCommit()) {
+                event.guiClass = inv.getClass().getName();
+                event.commit();
+            }
+        }
+    }
+
+    static ClickEvent beginClick() {
+        if (!AVAILABLE) {
+            return null;
+        }
+
+        ClickEvent event = new ClickEvent();
+        event.begin();
+        return event;
+    }
+
+    static void commitClick(ClickEvent event, FastInv inv, int rawSlot, ClickType clickType) {
+        if (event != null) {
+            event.end();
+
+            if (event.shouldCommit()) {
+                event.guiClass = inv.getClass().getName();
+                event.rawSlot = rawSlot;
+                event.clickType = clickType != null ? clickType.name() : null;
+                event.commit();
+            }
+        }
+    }
+
+    static PageEvent beginPage() {
+        if (!AVAILABLE) {
+            return null;
+        }
+
+        PageEvent event = new PageEvent();
+        event.begin();
+        return event;
+    }
+
+    static void commitPage(PageEvent event, FastInv inv, int page, long slotWrites) {
+        if (event != null) {
+            event.end();
+
+            if (event.shouldCommit()) {
+                event.guiClass = inv.getClass().getName();
+                event.page = page;
+                event.slotWrites = slotWrites;
+                event.commit();
+            }
+        }
+    }
+
+    static SchemeApplyEvent beginSchemeApply() {
+        if (!AVAILABLE) {
+            return null;
+        }
+
+        SchemeApplyEvent event = new SchemeApplyEvent();
+        event.begin();
+        return event;
+    }
+
+    static void commitSchemeApply(SchemeApplyEvent event, FastInv inv, long slotWrites) {
+        if (event != null) {
+            event.end();
+
+            if (event.shouldCommit()) {
+                event.guiClass = inv.getClass().getName();
+                event.slotWrites = slotWrites;
+                event.commit();
+            }
+        }
+    }
+
+    static ComponentApplyEvent beginComponentApply() {
+        if (!AVAILABLE) {
+            return null;
+        }
+
+        ComponentApplyEvent event = new ComponentApplyEvent();
+        event.begin();
+        return event;
+    }
+
+    static void commitComponentApply(ComponentApplyEvent event, FastInv inv, GuiComponent component, long slotWrites) {
+        if (event != null) {
+            event.end();
+
+            if (event.shouldCommit()) {
+                event.guiClass = inv.getClass().getName();
+                event.componentClass = component.getClass().getName();
+                event.slotWrites = slotWrites;
+                event.commit();
+            }
+        }
+    }
+
+    private static boolean isAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event");
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    @Name("fr.mrmicky.fastinv.Open")
+    @Label("FastInv Open")
+    @Category("FastInv")
+    @Description("Open handlers of a FastInv")
+    static final class OpenEvent extends Event {
+
+        @Label("GUI Class")
+        String guiClass;
+    }
+
+    @Name("fr.mrmicky.fastinv.Close")
+    @Label("FastInv Close")
+    @Category("FastInv")
+    @Description("Close handlers of a FastInv")
+    static final class CloseEvent extends Event {
+
+        @Label("GUI Class")
+        String guiClass;
+    }
+
+    @Name("fr.mrmicky.fastinv.Click")
+    @Label("FastInv Click")
+    @Category("FastInv")
+    @Description("Dispatch of a click to the handlers of a FastInv")
+    static final class ClickEvent extends Event {
+
+        @Label("GUI Class")
+        String guiClass;
+
+        @Label("Raw Slot")
+        int rawSlot;
+
+        @Label("Click Type")
+        String clickType;
+    }
+
+    @Name("fr.mrmicky.fastinv.OpenPage")
+    @Label("FastInv Open Page")
+    @Category("FastInv")
+    @Description("Rendering of a page of a PaginatedFastInv, without the asynchronous loading")
+    static final class PageEvent extends Event {
+
+        @Label("GUI Class")
+        String guiClass;
+
+        @Label("Page")
+        int page;
+
+        @Label("Slot Writes")
+        long slotWrites;
+    }
+
+    @Name("fr.mrmicky.fastinv.SchemeApply")
+    @Label("FastInv Scheme Apply")
+    @Category("FastInv")
+    @Description("Application of an InventoryScheme to a FastInv")
+    static final class SchemeApplyEvent extends Event {
+
+        @Label("GUI Class")
+        String guiClass;
+
+        @Label("Slot Writes")
+        long slotWrites;
+    }
+
+    @Name("fr.mrmicky.fastinv.ComponentApply")
+    @Label("FastInv Component Apply")
+    @Category("FastInv")
+    @Description("Application of a component added to a FastInv")
+    static final class ComponentApplyEvent extends Event {
+
+        @Label("GUI Class")
+        String guiClass;
+
+        @Label("Component Class")
+        String componentClass;
+
+        @Label("Slot Writes")
+        long slotWrites;
+    }
+}
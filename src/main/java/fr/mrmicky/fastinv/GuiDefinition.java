@@ -0,0 +1,245 @@
+package fr.mrmicky.fastinv;
+
+import org.bukkit.ChatColor;
+import org.bukkit.Material;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.inventory.ItemFlag;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Inventory layout loaded from a definition file, compiled once into a {@link CompiledScheme}
+ * with prebuilt items, so opening an inventory doesn't parse anything.
+ * <p>
+ *     A definition file has the following format:
+ * </p>
+ * <pre>
+ * title: '&amp;8Shop'
+ * masks:
+ *   - '111111111'
+ *   - '1ppppppp1'
+ *   - '111&lt;1&gt;111'
+ * pagination: 'p'
+ * next-page:
+ *   char: '&gt;'
+ *   item: {material: ARROW, name: '&amp;aNext page'}
+ * previous-page:
+ *   char: '&lt;'
+ *   item: {material: ARROW, name: '&amp;aPrevious page'}
+ * items:
+ *   '1':
+ *     material: GRAY_STAINED_GLASS_PANE
+ *     name: ' '
+ *   'c':
+ *     material: BARRIER
+ *     name: '&amp;cClose'
+ *     lore: ['&amp;7Close the shop']
+ *     flags: [HIDE_ATTRIBUTES]
+ *     action: close
+ * </pre>
+ * <p>
+ *     Actions are bound to click handlers by {@link GuiDefinitions#bindAction(String, Consumer)}.
+ *     Names and lore support the {@code &} color codes.
+ * </p>
+ *
+ * @see GuiDefinitions
+ */
+public final class GuiDefinition {
+
+    private final String name;
+    private final String title;
+    private final CompiledScheme scheme;
+    private final ItemStack nextPageItem;
+    private final ItemStack previousPageItem;
+
+    private GuiDefinition(String name, String title, CompiledScheme scheme,
+                          ItemStack nextPageItem, ItemStack previousPageItem) {
+        this.name = name;
+        this.title = title;
+        this.scheme = scheme;
+        this.nextPageItem = nextPageItem;
+        this.previousPageItem = previousPageItem;
+    }
+
+    /**
+     * Compile a definition.
+     *
+     * @param name    the name of the definition
+     * @param config  the content of the definition file
+     * @param actions the function returning the click handler of an action
+     * @return the compiled definition
+     * @throws IllegalArgumentException if the definition is invalid
+     */
+    static GuiDefinition compile(String name, ConfigurationSection config,
+                                 Function<String, Consumer<InventoryClickEvent>> actions) {
+        List<String> masks = config.getStringList("masks");
+
+        if (masks.isEmpty() || masks.size() > 6) {
+            throw new IllegalArgumentException("The definition must have between 1 and 6 masks: " + masks.size());
+        }
+
+        InventoryScheme scheme = new InventoryScheme();
+        masks.forEach(scheme::mask);
+
+        ConfigurationSection items = config.getConfigurationSection("items");
+
+        if (items != null) {
+            for (String key : items.getKeys(false)) {
+                ConfigurationSection item = items.getConfigurationSection(key);
+
+                if (item == null) {
+                    throw new IllegalArgumentException("Invalid item '" + key + "'");
+                }
+
+                String action = item.getString("action");
+                scheme.bindItem(parseChar(key, "items"), buildItem(item),
+                        action != null ? actions.apply(action) : null);
+            }
+        }
+
+        if (config.contains("pagination")) {
+            scheme.bindPagination(parseChar(config.getString("pagination"), "pagination"));
+        }
+
+        ItemStack nextPageItem = bindNavigation(scheme, config.getConfigurationSection("next-page"), true);
+        ItemStack previousPageItem = bindNavigation(scheme, config.getConfigurationSection("previous-page"), false);
+        String title = colorize(config.getString("title", "Inventory"));
+
+        return new GuiDefinition(name, title, scheme.compile(), nextPageItem, previousPageItem);
+    }
+
+    private static ItemStack bindNavigation(InventoryScheme scheme, ConfigurationSection section, boolean next) {
+        if (section == null) {
+            return null;
+        }
+
+        String path = section.getCurrentPath();
+        char character = parseChar(section.getString("char"), path + ".char");
+
+        if (next) {
+            scheme.bindNextPage(character);
+        } else {
+            scheme.bindPreviousPage(character);
+        }
+
+        ConfigurationSection item = section.getConfigurationSection("item");
+        return item != null ? buildItem(item) : null;
+    }
+
+    private static ItemStack buildItem(ConfigurationSection section) {
+        String materialName = section.getString("material");
+        Material material = materialName != null ? Material.matchMaterial(materialName) : null;
+
+        if (material == null) {
+            throw new IllegalArgumentException("Invalid material at '" + section.getCurrentPath() + "': " + materialName);
+        }
+
+        ItemBuilder builder = new ItemBuilder(material).amount(section.getInt("amount", 1));
+
+        if (section.isString("name")) {
+            builder.name(colorize(section.getString("name")));
+        }
+
+        if (section.isList("lore")) {
+            List<String> lore = section.getStringList("lore");
+            lore.replaceAll(GuiDefinition::colorize);
+            builder.lore(lore);
+        }
+
+        if (section.isList("flags")) {
+            for (String flag : section.getStringList("flags")) {
+                try {
+                    builder.flags(ItemFlag.valueOf(flag.toUpperCase(Locale.ROOT)));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Invalid flag at '" + section.getCurrentPath() + "': " + flag);
+                }
+            }
+        } else if (section.getBoolean("flags")) {
+            builder.flags();
+        }
+
+        return builder.build();
+    }
+
+    private static char parseChar(String value, String path) {
+        if (value == null || value.length() != 1) {
+            throw new IllegalArgumentException("Invalid character at '" + path + "': " + value);
+        }
+        return value.charAt(0);
+    }
+
+    private static String colorize(String text) {
+        return ChatColor.translateAlternateColorCodes('&', text);
+    }
+
+    /**
+     * Apply this definition to the FastInv instance. For a {@link PaginatedFastInv},
+     * this also sets the page navigation items.
+     *
+     * @param inv the FastInv instance to apply this definition to
+     */
+    public void apply(FastInv inv) {
+        this.scheme.apply(inv);
+
+        if (inv instanceof PaginatedFastInv) {
+            PaginatedFastInv paginatedInv = (PaginatedFastInv) inv;
+
+            if (this.nextPageItem != null) {
+                paginatedInv.nextPageItem(this.nextPageItem);
+            }
+
+            if (this.previousPageItem != null) {
+                paginatedInv.previousPageItem(this.previousPageItem);
+            }
+        }
+    }
+
+    /**
+     * Create a new inventory with the size and title of this definition, and apply this definition to it.
+     *
+     * @return the created inventory
+     */
+    public FastInv createInventory() {
+        FastInv inv = new FastInv(this.scheme.size(), this.title);
+        apply(inv);
+        return inv;
+    }
+
+    /**
+     * Create a new paginated inventory with the size and title of this definition, and apply this definition to it.
+     *
+     * @return the created inventory
+     */
+    public PaginatedFastInv createPaginatedInventory() {
+        PaginatedFastInv inv = new PaginatedFastInv(this.scheme.size(), this.title);
+        apply(inv);
+        return inv;
+    }
+
+    /**
+     * Get the name of this definition, which is the name of its file without the extension.
+     *
+     * @return the name of this definition
+     */
+    public String getName() {
+        return this.name;
+    }
+
+    public String getTitle() {
+        return this.title;
+    }
+
+    /**
+     * Get the compiled layout of this definition.
+     *
+     * @return the compiled layout
+     */
+    public CompiledScheme getScheme() {
+        return this.scheme;
+    }
+}
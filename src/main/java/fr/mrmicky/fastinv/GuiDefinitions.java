@@ -0,0 +1,356 @@
+package fr.mrmicky.fastinv;
+
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.plugin.Plugin;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Loader of the {@link GuiDefinition} files of a directory, with the {@code .yml}, {@code .yaml}
+ * or {@code .json} extension. Each definition is compiled once when its file is loaded.
+ * <p>
+ *     With {@link #watch()}, the directory is watched and a changed file is parsed again off the main thread,
+ *     then compiled on the main thread and swapped with the previous definition. An invalid file is logged,
+ *     and the previous definition is kept. Inventories already created are not affected by a reload.
+ * </p>
+ * <pre>{@code
+ * GuiDefinitions definitions = new GuiDefinitions(getDataFolder().toPath().resolve("menus"));
+ * definitions.bindAction("close", e -> e.getWhoClicked().closeInventory());
+ * definitions.loadAll();
+ * definitions.watch();
+ *
+ * definitions.get("shop").ifPresent(definition -> definition.createInventory().open(player));
+ * }</pre>
+ * The watcher must be stopped with {@link #close()} when the plugin is disabled.
+ */
+public final class GuiDefinitions implements Closeable {
+
+    /**
+     * Delay before reloading a changed file, to let editors finish writing it.
+     */
+    private static final long RELOAD_DELAY_MILLIS = 100;
+
+    private final Path directory;
+    private final Map<String, GuiDefinition> definitions = new ConcurrentHashMap<>();
+    private final Map<String, Consumer<InventoryClickEvent>> actions = new ConcurrentHashMap<>();
+
+    private Watcher watcher;
+
+    /**
+     * Create a loader of the definitions of a directory. FastInv must be registered.
+     *
+     * @param directory the directory containing the definition files
+     */
+    public GuiDefinitions(Path directory) {
+        this.directory = Objects.requireNonNull(directory, "directory");
+    }
+
+    /**
+     * Bind a click handler to an action name, used by the {@code action} of the items in the definitions.
+     * The handlers are resolved on each click, and can be bound before or after loading the definitions.
+     *
+     * @param action  the name of the action
+     * @param handler the handler of the clicks on the items with this action
+     * @return this instance
+     */
+    public GuiDefinitions bindAction(String action, Consumer<InventoryClickEvent> handler) {
+        this.actions.put(Objects.requireNonNull(action, "action"), Objects.requireNonNull(handler, "handler"));
+        return this;
+    }
+
+    /**
+     * Load and compile all the definition files of the directory, replacing the loaded definitions.
+     * Invalid files are logged and skipped.
+     *
+     * @throws IOException if the directory can't be read
+     */
+    public void loadAll() throws IOException {
+        Map<String, GuiDefinition> loaded = new HashMap<>();
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(this.directory)) {
+            for (Path file : files) {
+                String name = definitionName(file);
+
+                if (name == null) {
+                    continue;
+                }
+
+                try {
+                    loaded.put(name, compile(name, parse(file)));
+                } catch (IOException | InvalidConfigurationException | IllegalArgumentException e) {
+                    logInvalid(FastInvManager.getPlugin().getLogger(), file, e);
+                }
+            }
+        }
+
+        this.definitions.keySet().retainAll(loaded.keySet());
+        this.definitions.putAll(loaded);
+    }
+
+    /**
+     * Get a loaded definition.
+     *
+     * @param name the name of the definition file, without the extension
+     * @return the definition, or an empty optional if there is no valid definition with this name
+     */
+    public Optional<GuiDefinition> get(String name) {
+        return Optional.ofNullable(this.definitions.get(name));
+    }
+
+    /**
+     * Get the loaded definitions.
+     *
+     * @return an unmodifiable view of the definitions by name
+     */
+    public Map<String, GuiDefinition> getDefinitions() {
+        return Collections.unmodifiableMap(this.definitions);
+    }
+
+    /**
+     * Start watching the directory, to reload the definition files when they are created, changed or deleted.
+     *
+     * @throws IOException if the directory can't be watched
+     */
+    public synchronized void watch() throws IOException {
+        if (this.watcher != null) {
+            return;
+        }
+
+        WatchService watchService = this.directory.getFileSystem().newWatchService();
+        this.directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        this.watcher = new Watcher(watchService, FastInvManager.getPlugin());
+
+        Thread thread = new Thread(this.watcher, "FastInv definitions watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public synchronized boolean isWatching() {
+        return this.watcher != null;
+    }
+
+    /**
+     * Stop watching the directory. The loaded definitions are kept.
+     */
+    @Override
+    public synchronized void close() {
+        if (this.watcher == null) {
+            return;
+        }
+
+        Watcher watcher = this.watcher;
+        this.watcher = null;
+
+        try {
+            watcher.watchService.close();
+        } catch (IOException e) {
+            watcher.logger.log(Level.WARNING, "Unable to close the definitions watcher", e);
+        }
+    }
+
+    /**
+     * Watch loop of the directory. The plugin and its logger are captured by {@link #watch()},
+     * as the watcher thread must not access FastInvManager after the plugin is disabled.
+     */
+    private final class Watcher implements Runnable {
+
+        private final WatchService watchService;
+        private final Plugin plugin;
+        private final Logger logger;
+
+        private Watcher(WatchService watchService, Plugin plugin) {
+            this.watchService = watchService;
+            this.plugin = plugin;
+            this.logger = plugin.getLogger();
+        }
+
+        /**
+         * Return if this watcher is still the watcher of the definitions, and wasn't stopped by {@link #close()}.
+         */
+        private boolean isActive() {
+            synchronized (GuiDefinitions.this) {
+                return GuiDefinitions.this.watcher == this;
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    WatchKey key = this.watchService.take();
+                    Set<Path> changedFiles = new HashSet<>();
+                    boolean overflow = false;
+
+                    Thread.sleep(RELOAD_DELAY_MILLIS);
+
+                    // Group the events of the same file, as editors often write a file in several steps
+                    do {
+                        for (WatchEvent<?> event : key.pollEvents()) {
+                            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                                overflow = true;
+                                continue;
+                            }
+
+                            changedFiles.add(GuiDefinitions.this.directory.resolve((Path) event.context()));
+                        }
+
+                        if (!key.reset()) {
+                            stopInaccessible();
+                            return;
+                        }
+                    } while ((key = this.watchService.poll()) != null);
+
+                    if (overflow) {
+                        runSync(() -> {
+                            try {
+                                loadAll();
+                            } catch (IOException e) {
+                                this.logger.log(Level.WARNING, "Unable to reload the definitions", e);
+                            }
+                        });
+                        continue;
+                    }
+
+                    changedFiles.forEach(this::reload);
+                }
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                // Stopped by close()
+            }
+        }
+
+        private void stopInaccessible() {
+            synchronized (GuiDefinitions.this) {
+                // The key is also invalid when the watch service was closed
+                if (!isActive()) {
+                    return;
+                }
+
+                this.logger.warning("The definitions directory " + GuiDefinitions.this.directory
+                        + " is no longer accessible, reloads are stopped");
+                close();
+            }
+        }
+
+        private void reload(Path file) {
+            String name = definitionName(file);
+
+            if (name == null) {
+                return;
+            }
+
+            if (!Files.exists(file)) {
+                runSync(() -> {
+                    if (GuiDefinitions.this.definitions.remove(name) != null) {
+                        this.logger.info("Removed GUI definition " + name);
+                    }
+                });
+                return;
+            }
+
+            YamlConfiguration config;
+            try {
+                config = parse(file); // Parse off the main thread
+            } catch (IOException | InvalidConfigurationException e) {
+                if (isActive()) {
+                    logInvalid(this.logger, file, e);
+                }
+                return;
+            }
+
+            runSync(() -> {
+                try {
+                    GuiDefinitions.this.definitions.put(name, compile(name, config));
+                    this.logger.info("Reloaded GUI definition " + name);
+                } catch (IllegalArgumentException e) {
+                    logInvalid(this.logger, file, e);
+                }
+            });
+        }
+
+        /**
+         * Run a task on the main thread, unless the plugin is disabled or this watcher stopped in the meantime.
+         */
+        private void runSync(Runnable task) {
+            if (!this.plugin.isEnabled() || !isActive()) {
+                return;
+            }
+
+            Bukkit.getScheduler().runTask(this.plugin, () -> {
+                if (isActive()) {
+                    task.run();
+                }
+            });
+        }
+    }
+
+    private GuiDefinition compile(String name, YamlConfiguration config) {
+        return GuiDefinition.compile(name, config, action -> e -> {
+            Consumer<InventoryClickEvent> handler = this.actions.get(action);
+
+            if (handler != null) {
+                handler.accept(e);
+            }
+        });
+    }
+
+    private static YamlConfiguration parse(Path file) throws IOException, InvalidConfigurationException {
+        String content = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+
+        if (file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".json")) {
+            // JSON is parsed as YAML, which doesn't allow tabs for indentation.
+            // Valid JSON has no raw tab in its strings, so they can all be replaced.
+            content = content.replace('\t', ' ');
+        }
+
+        YamlConfiguration config = new YamlConfiguration();
+        config.loadFromString(content);
+        return config;
+    }
+
+    private static String definitionName(Path file) {
+        String fileName = file.getFileName().toString();
+        int extensionIndex = fileName.lastIndexOf('.');
+
+        if (extensionIndex <= 0) {
+            return null;
+        }
+
+        String extension = fileName.substring(extensionIndex + 1).toLowerCase(Locale.ROOT);
+
+        if (!extension.equals("yml") && !extension.equals("yaml") && !extension.equals("json")) {
+            return null;
+        }
+
+        return fileName.substring(0, extensionIndex);
+    }
+
+    private static void logInvalid(Logger logger, Path file, Exception e) {
+        logger.warning("Invalid GUI definition " + file.getFileName() + ": " + e.getMessage());
+    }
+}
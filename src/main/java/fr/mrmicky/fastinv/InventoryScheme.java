@@ -21,6 +21,8 @@ public class InventoryScheme {
     private char nextPageChar;
     private char previousPageChar;
 
+    private CompiledScheme compiled;
+
     /**
      * Add a mask to this scheme including all sort of characters.
      * For example: "110101011"
@@ -32,7 +34,8 @@ public class InventoryScheme {
     public InventoryScheme mask(String mask) {
         Objects.requireNonNull(mask);
         mask = mask.replace(" ", "");
-        this.masks.add(mask.length() > 9 ? mask.substring(0, 10) : mask);
+        this.masks.add(mask.length() > 9 ? mask.substring(0, 9) : mask);
+        this.compiled = null;
 
         return this;
     }
@@ -65,6 +68,7 @@ public class InventoryScheme {
         if (handler != null) {
             this.handlers.put(character, handler);
         }
+        this.compiled = null;
         return this;
     }
 
@@ -87,6 +91,7 @@ public class InventoryScheme {
      */
     public InventoryScheme bindPagination(char character) {
         this.paginationChar = character;
+        this.compiled = null;
         return this;
     }
 
@@ -98,6 +103,7 @@ public class InventoryScheme {
      */
     public InventoryScheme bindNextPage(char character) {
         this.nextPageChar = character;
+        this.compiled = null;
         return this;
     }
 
@@ -109,6 +115,7 @@ public class InventoryScheme {
      */
     public InventoryScheme bindPreviousPage(char character) {
         this.previousPageChar = character;
+        this.compiled = null;
         return this;
     }
 
@@ -121,6 +128,7 @@ public class InventoryScheme {
      */
     public InventoryScheme bindComponent(char character, Class<? extends GuiComponent> component) {
         this.componentChars.put(character, component);
+        this.compiled = null;
         return this;
     }
 
@@ -133,67 +141,34 @@ public class InventoryScheme {
     public InventoryScheme unbindItem(char character) {
         this.items.remove(character);
         this.handlers.remove(character);
+        this.compiled = null;
         return this;
     }
 
     /**
-     * Apply the current inventory scheme to the FastInv instance.
+     * Compile the current inventory scheme into an immutable layout, with all the masks resolved to slots.
+     * The result is cached until this scheme is modified, and can be shared between threads and inventories.
      *
-     * @param inv the FastInv instance to apply this scheme to
+     * @return the compiled layout of this scheme
      */
-    public void apply(FastInv inv) {
-        List<Integer> paginationSlots = new ArrayList<>();
-        Map<Class<? extends GuiComponent>, List<Integer>> componentSlots = new HashMap<>();
-
-        for (int line = 0; line < this.masks.size(); line++) {
-            String mask = this.masks.get(line);
-
-            for (int slot = 0; slot < mask.length(); slot++) {
-                char c = mask.charAt(slot);
-
-                if (c == this.paginationChar) {
-                    paginationSlots.add(9 * line + slot);
-                    continue;
-                }
-
-                if (c == this.nextPageChar && inv instanceof PaginatedFastInv) {
-                    ((PaginatedFastInv) inv).nextPageSlot(9 * line + slot);
-                    continue;
-                }
-
-                if (c == this.previousPageChar && inv instanceof PaginatedFastInv) {
-                    ((PaginatedFastInv) inv).previousPageSlot(9 * line + slot);
-                    continue;
-                }
-
-                if (this.componentChars.containsKey(c)) {
-                    Class<? extends GuiComponent> componentClass = this.componentChars.get(c);
-                    int add = 9 * line + slot;
-
-                    componentSlots.compute(componentClass, (k, v) -> {
-                        if (v == null) v = new ArrayList<>();
-                        v.add(add);
-                        return v;
-                    });
-                    continue;
-                }
-
-                ItemStack item = this.items.get(c);
-                Consumer<InventoryClickEvent> handler = this.handlers.get(c);
-
-                if (item != null) {
-                    inv.setItem(9 * line + slot, item, handler);
-                }
-            }
-        }
+    public CompiledScheme compile() {
+        CompiledScheme compiled = this.compiled;
 
-        if (inv instanceof PaginatedFastInv && !paginationSlots.isEmpty()) {
-            ((PaginatedFastInv) inv).setContentSlots(paginationSlots);
+        if (compiled == null) {
+            compiled = new CompiledScheme(this.masks, this.items, this.handlers, this.componentChars,
+                    this.paginationChar, this.nextPageChar, this.previousPageChar);
+            this.compiled = compiled;
         }
+        return compiled;
+    }
 
-        for (Map.Entry<Class<? extends GuiComponent>, List<Integer>> entry : componentSlots.entrySet()) {
-            inv.getComponent(entry.getKey())
-                    .ifPresent(component -> component.setSlots(entry.getValue()));
-        }
+    /**
+     * Apply the current inventory scheme to the FastInv instance.
+     *
+     * @param inv the FastInv instance to apply this scheme to
+     * @see #compile()
+     */
+    public void apply(FastInv inv) {
+        compile().apply(inv);
     }
 }
@@ -37,14 +37,36 @@ import java.util.function.Consumer;
 
 /**
  * Simple {@link ItemStack} builder.
+ * <p>
+ *     The changes are recorded and applied in order by {@link #build()}, which gets and sets
+ *     the {@link ItemMeta} of the item only once, unless changes of the item itself like {@link #type(Material)}
+ *     are recorded between changes of the meta.
+ * </p>
  *
  * @author MrMicky
  */
 public class ItemBuilder {
 
     private final ItemStack item;
-    private final List<String> lore;
-    private final ItemMeta itemMeta;
+    /**
+     * Material of the builders created from a material, to identify the item in the {@link ItemCache} key
+     * without copying it, or {@code null} if the builder was created from an item or has already built it.
+     */
+    private Material material;
+    /**
+     * If an opaque function was recorded since the last build, in which case the item can't be cached.
+     */
+    private boolean opaque;
+
+    /**
+     * Changes recorded since the last build, in call order.
+     */
+    private final List<Edit> edits = new ArrayList<>();
+    /**
+     * Last lore change, extended by the next {@code addLore} calls instead of recording new changes,
+     * or {@code null} if an opaque function was recorded after it.
+     */
+    private Edit loreEdit;
 
     private Consumer<InventoryClickEvent> handler;
     private int slot = -1;
@@ -54,31 +76,28 @@ public class ItemBuilder {
     }
 
     public ItemBuilder(Material material) {
-        this(new ItemStack(material));
+        this(new ItemStack(material), material);
     }
 
     public ItemBuilder(ItemStack item) {
-        this.item = Objects.requireNonNull(item, "item");
-        this.itemMeta = item.getItemMeta();
+        this(item, null);
+    }
 
-        if (itemMeta == null || itemMeta.getLore() == null) {
-            this.lore = new ArrayList<>();
-        } else {
-            this.lore = itemMeta.getLore();
-        }
+    private ItemBuilder(ItemStack item, Material material) {
+        this.item = Objects.requireNonNull(item, "item");
+        this.material = material;
     }
 
     public ItemBuilder edit(Consumer<ItemStack> function) {
-        function.accept(this.item);
-        return this;
+        this.opaque = true;
+        this.loreEdit = null;
+        return addEdit(new Edit(Edit.Kind.ITEM_FUNCTION, function, 0));
     }
 
     public ItemBuilder meta(Consumer<ItemMeta> metaConsumer) {
-        return edit(item -> {
-            if (itemMeta != null) {
-                metaConsumer.accept(itemMeta);
-            }
-        });
+        this.opaque = true;
+        this.loreEdit = null;
+        return addEdit(new Edit(Edit.Kind.META_FUNCTION, metaConsumer, 0));
     }
 
     public <T extends ItemMeta> ItemBuilder meta(Class<T> metaClass, Consumer<T> metaConsumer) {
@@ -90,20 +109,19 @@ public class ItemBuilder {
     }
 
     public ItemBuilder type(Material material) {
-        return edit(item -> item.setType(material));
+        return addEdit(new Edit(Edit.Kind.TYPE, material, 0));
     }
 
     public ItemBuilder data(int data) {
         return durability((short) data);
     }
 
-    @SuppressWarnings("deprecation")
     public ItemBuilder durability(short durability) {
-        return edit(item -> item.setDurability(durability));
+        return addEdit(new Edit(Edit.Kind.DURABILITY, null, durability));
     }
 
     public ItemBuilder amount(int amount) {
-        return edit(item -> item.setAmount(amount));
+        return addEdit(new Edit(Edit.Kind.AMOUNT, null, amount));
     }
 
     public ItemBuilder enchant(Enchantment enchantment) {
@@ -111,19 +129,19 @@ public class ItemBuilder {
     }
 
     public ItemBuilder enchant(Enchantment enchantment, int level) {
-        return meta(meta -> meta.addEnchant(enchantment, level, true));
+        return addEdit(new Edit(Edit.Kind.ENCHANT, enchantment, level));
     }
 
     public ItemBuilder removeEnchant(Enchantment enchantment) {
-        return meta(meta -> meta.removeEnchant(enchantment));
+        return addEdit(new Edit(Edit.Kind.REMOVE_ENCHANT, enchantment, 0));
     }
 
     public ItemBuilder removeEnchants() {
-        return meta(m -> m.getEnchants().keySet().forEach(m::removeEnchant));
+        return addEdit(new Edit(Edit.Kind.REMOVE_ENCHANTS, null, 0));
     }
 
     public ItemBuilder name(String name) {
-        return meta(meta -> meta.setDisplayName(name));
+        return addEdit(new Edit(Edit.Kind.NAME, name, 0));
     }
 
     public ItemBuilder lore(String lore) {
@@ -135,36 +153,32 @@ public class ItemBuilder {
     }
 
     public ItemBuilder lore(List<String> lore) {
-        this.lore.clear();
-        this.lore.addAll(lore);
-        return this;
+        this.loreEdit = new Edit(Edit.Kind.LORE, new ArrayList<>(lore), 0);
+        return addEdit(this.loreEdit);
     }
 
     public ItemBuilder addLore(String line) {
-        this.lore.add(line);
-        return this;
+        return addLore(Collections.singletonList(line));
     }
 
     public ItemBuilder addLore(String... lines) {
         return addLore(Arrays.asList(lines));
     }
 
+    @SuppressWarnings("unchecked")
     public ItemBuilder addLore(List<String> lines) {
-        return meta(meta -> {
-            List<String> lore = meta.getLore();
-
-            if (lore == null) {
-                meta.setLore(lines);
-                return;
-            }
+        // The changes recorded in between don't use the lore, as opaque functions reset loreEdit
+        if (this.loreEdit != null) {
+            ((List<String>) this.loreEdit.value).addAll(lines);
+            return this;
+        }
 
-            lore.addAll(lines);
-            meta.setLore(lore);
-        });
+        this.loreEdit = new Edit(Edit.Kind.ADD_LORE, new ArrayList<>(lines), 0);
+        return addEdit(this.loreEdit);
     }
 
     public ItemBuilder flags(ItemFlag... flags) {
-        return meta(meta -> meta.addItemFlags(flags));
+        return addEdit(new Edit(Edit.Kind.FLAGS, flags.clone(), 0));
     }
 
     public ItemBuilder flags() {
@@ -172,7 +186,7 @@ public class ItemBuilder {
     }
 
     public ItemBuilder removeFlags(ItemFlag... flags) {
-        return meta(meta -> meta.removeItemFlags(flags));
+        return addEdit(new Edit(Edit.Kind.REMOVE_FLAGS, flags.clone(), 0));
     }
 
     public ItemBuilder removeFlags() {
@@ -180,7 +194,7 @@ public class ItemBuilder {
     }
 
     public ItemBuilder armorColor(Color color) {
-        return meta(LeatherArmorMeta.class, meta -> meta.setColor(color));
+        return addEdit(new Edit(Edit.Kind.ARMOR_COLOR, color, 0));
     }
 
     public ItemBuilder slot(int slot) {
@@ -210,9 +224,212 @@ public class ItemBuilder {
         scheme.bindItem(character, build(), handler);
     }
 
+    /**
+     * Apply the recorded changes to the item, in the order they were recorded.
+     *
+     * @return the built item
+     */
     public ItemStack build() {
-        meta(meta -> meta.setLore(lore));
-        this.item.setItemMeta(this.itemMeta);
+        ItemMeta meta = null;
+
+        for (Edit edit : this.edits) {
+            if (edit.kind.itemEdit) {
+                // The change of the item may also change its meta
+                if (meta != null) {
+                    this.item.setItemMeta(meta);
+                    meta = null;
+                }
+
+                edit.apply(this.item);
+                continue;
+            }
+
+            if (meta == null && (meta = this.item.getItemMeta()) == null) {
+                continue; // Air has no meta
+            }
+
+            edit.apply(meta);
+        }
+
+        if (meta != null) {
+            this.item.setItemMeta(meta);
+        }
+
+        // The changes are now part of the item
+        this.edits.clear();
+        this.loreEdit = null;
+        this.opaque = false;
+        this.material = null;
+
         return this.item;
     }
+
+    /**
+     * Build the item, or copy it from the shared {@link ItemCache} if an identical item was already built.
+     *
+     * @return the built item
+     * @see #buildShared(ItemCache)
+     */
+    public ItemStack buildShared() {
+        return buildShared(ItemCache.shared());
+    }
+
+    /**
+     * Build the item, or copy it from the given cache if an identical item was already built,
+     * which is cheaper than applying the changes to a new meta.
+     * <p>
+     *     Items edited with {@link #edit(Consumer)} or {@link #meta(Consumer)} can't be compared,
+     *     and are always built without being cached.
+     * </p>
+     *
+     * @param cache the cache to use
+     * @return a copy of the cached item, that can be modified
+     */
+    public ItemStack buildShared(ItemCache cache) {
+        if (this.opaque) {
+            return build();
+        }
+
+        // The key is only created here, so build() doesn't pay for it
+        List<Object> key = new ArrayList<>(this.edits.size() + 1);
+        key.add(this.material != null ? this.material : this.item.clone());
+        key.addAll(this.edits);
+
+        // The changes in the key must not be extended anymore
+        this.loreEdit = null;
+
+        return cache.get(key, () -> build().clone()).clone();
+    }
+
+    /**
+     * Build the item and parse the {@code {placeholder}} in its name and lore,
+     * to render it with different values.
+     *
+     * @return the template of the item
+     * @see ItemTemplate#render(java.util.function.Function)
+     */
+    public ItemTemplate template() {
+        return ItemTemplate.of(build());
+    }
+
+    private ItemBuilder addEdit(Edit edit) {
+        this.edits.add(edit);
+        return this;
+    }
+
+    /**
+     * Change recorded by the builder, applied to the item or to its meta by {@link #build()}.
+     */
+    private static final class Edit {
+
+        private final Kind kind;
+        private final Object value;
+        private final int number;
+
+        private Edit(Kind kind, Object value, int number) {
+            this.kind = kind;
+            this.value = value;
+            this.number = number;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Edit)) {
+                return false;
+            }
+
+            Edit edit = (Edit) o;
+            return this.kind == edit.kind && this.number == edit.number
+                    && Objects.deepEquals(this.value, edit.value);
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 31 * this.kind.hashCode() + this.number;
+            return 31 * hash + (this.value instanceof Object[]
+                    ? Arrays.hashCode((Object[]) this.value) : Objects.hashCode(this.value));
+        }
+
+        @SuppressWarnings({"unchecked", "deprecation"})
+        void apply(ItemStack item) {
+            switch (this.kind) {
+                case TYPE:
+                    item.setType((Material) this.value);
+                    break;
+                case DURABILITY:
+                    item.setDurability((short) this.number);
+                    break;
+                case AMOUNT:
+                    item.setAmount(this.number);
+                    break;
+                case ITEM_FUNCTION:
+                    ((Consumer<ItemStack>) this.value).accept(item);
+                    break;
+                default:
+                    throw new IllegalStateException("Not an item change: " + this.kind);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        void apply(ItemMeta meta) {
+            switch (this.kind) {
+                case ENCHANT:
+                    meta.addEnchant((Enchantment) this.value, this.number, true);
+                    break;
+                case REMOVE_ENCHANT:
+                    meta.removeEnchant((Enchantment) this.value);
+                    break;
+                case REMOVE_ENCHANTS:
+                    meta.getEnchants().keySet().forEach(meta::removeEnchant);
+                    break;
+                case NAME:
+                    meta.setDisplayName((String) this.value);
+                    break;
+                case LORE:
+                    meta.setLore((List<String>) this.value);
+                    break;
+                case ADD_LORE:
+                    List<String> lore = meta.getLore();
+
+                    if (lore == null) {
+                        meta.setLore((List<String>) this.value);
+                    } else {
+                        lore.addAll((List<String>) this.value);
+                        meta.setLore(lore);
+                    }
+                    break;
+                case FLAGS:
+                    meta.addItemFlags((ItemFlag[]) this.value);
+                    break;
+                case REMOVE_FLAGS:
+                    meta.removeItemFlags((ItemFlag[]) this.value);
+                    break;
+                case ARMOR_COLOR:
+                    if (meta instanceof LeatherArmorMeta) {
+                        ((LeatherArmorMeta) meta).setColor((Color) this.value);
+                    }
+                    break;
+                case META_FUNCTION:
+                    ((Consumer<ItemMeta>) this.value).accept(meta);
+                    break;
+                default:
+                    throw new IllegalStateException("Not a meta change: " + this.kind);
+            }
+        }
+
+        enum Kind {
+            TYPE(true), DURABILITY(true), AMOUNT(true), ITEM_FUNCTION(true),
+            ENCHANT(false), REMOVE_ENCHANT(false), REMOVE_ENCHANTS(false), NAME(false), LORE(false),
+            ADD_LORE(false), FLAGS(false), REMOVE_FLAGS(false), ARMOR_COLOR(false), META_FUNCTION(false);
+
+            private final boolean itemEdit;
+
+            Kind(boolean itemEdit) {
+                this.itemEdit = itemEdit;
+            }
+        }
+    }
 }
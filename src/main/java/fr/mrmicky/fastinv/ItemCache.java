@@ -0,0 +1,109 @@
+package fr.mrmicky.fastinv;
+
+import org.bukkit.inventory.ItemStack;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of items built by {@link ItemBuilder}, keyed by the full specification of the builder,
+ * with least recently used eviction.
+ * <p>
+ *     Cached items are prototypes that are never handed out: {@link ItemBuilder#buildShared()} returns copies of them,
+ *     so modifying a returned item doesn't affect the other users of the cache.
+ * </p>
+ * <p>
+ *     This class is thread-safe.
+ * </p>
+ *
+ * @see ItemBuilder#buildShared()
+ */
+public final class ItemCache {
+
+    private static final ItemCache SHARED = new ItemCache(1024);
+
+    private final int capacity;
+    private final Map<Object, ItemStack> items;
+
+    private long hits;
+    private long misses;
+
+    /**
+     * Create an item cache.
+     *
+     * @param capacity the maximum number of cached items
+     */
+    public ItemCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The capacity must be positive: " + capacity);
+        }
+
+        this.capacity = capacity;
+        this.items = new LinkedHashMap<Object, ItemStack>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, ItemStack> eldest) {
+                return size() > ItemCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Get the cache used by {@link ItemBuilder#buildShared()}, holding up to 1024 items.
+     *
+     * @return the shared item cache
+     */
+    public static ItemCache shared() {
+        return SHARED;
+    }
+
+    synchronized ItemStack get(Object key, Supplier<ItemStack> builder) {
+        ItemStack item = this.items.get(key);
+
+        if (item != null) {
+            this.hits++;
+            return item;
+        }
+
+        this.misses++;
+        item = builder.get();
+        this.items.put(key, item);
+        return item;
+    }
+
+    /**
+     * Remove all the cached items.
+     */
+    public synchronized void clear() {
+        this.items.clear();
+    }
+
+    public synchronized int size() {
+        return this.items.size();
+    }
+
+    public int capacity() {
+        return this.capacity;
+    }
+
+    public synchronized long getHits() {
+        return this.hits;
+    }
+
+    public synchronized long getMisses() {
+        return this.misses;
+    }
+
+    public synchronized double getHitRate() {
+        long total = this.hits + this.misses;
+        return total > 0 ? (double) this.hits / total : 0;
+    }
+
+    /**
+     * Reset the hit and miss counters.
+     */
+    public synchronized void resetStats() {
+        this.hits = 0;
+        this.misses = 0;
+    }
+}
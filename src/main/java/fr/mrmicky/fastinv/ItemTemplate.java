@@ -0,0 +1,221 @@
+package fr.mrmicky.fastinv;
+
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Item with {@code {placeholder}} in its name or lore, rendered for each player or each refresh.
+ * <p>
+ *     The name and lore are parsed once into literal and placeholder segments. Rendering resolves
+ *     the placeholders in a single pass, and only rewrites the name and lore lines containing placeholders:
+ *     the rest of the item is copied from the base item.
+ * </p>
+ * <pre>{@code
+ * ItemTemplate balance = new ItemBuilder(Material.GOLD_INGOT)
+ *         .name("Balance: {coins}")
+ *         .lore("Rank: {rank}", "Click to open the shop")
+ *         .template();
+ *
+ * inv.setItem(13, balance.render(key -> key.equals("coins") ? getCoins(player) : getRank(player)));
+ * }</pre>
+ *
+ * @see ItemBuilder#template()
+ */
+public final class ItemTemplate {
+
+    private static final int ESTIMATED_VALUE_LENGTH = 16;
+
+    /**
+     * The base item without meta.
+     */
+    private final ItemStack base;
+    private final ItemMeta baseMeta;
+
+    /**
+     * Compiled name, or {@code null} if the name has no placeholder.
+     */
+    private final Text name;
+    /**
+     * Compiled lore lines, with {@code null} for the lines without placeholder,
+     * or {@code null} if the lore has no placeholder.
+     */
+    private final Text[] lore;
+    private final List<String> baseLore;
+
+    private ItemTemplate(ItemStack item) {
+        this.baseMeta = item.getItemMeta();
+        this.base = item.clone();
+
+        if (this.baseMeta == null) {
+            this.name = null;
+            this.lore = null;
+            this.baseLore = null;
+            return;
+        }
+
+        this.base.setItemMeta(null);
+        this.name = this.baseMeta.hasDisplayName() ? Text.compile(this.baseMeta.getDisplayName()) : null;
+        this.baseLore = this.baseMeta.hasLore() ? this.baseMeta.getLore() : null;
+
+        Text[] lore = null;
+
+        if (this.baseLore != null) {
+            for (int i = 0; i < this.baseLore.size(); i++) {
+                Text line = Text.compile(this.baseLore.get(i));
+
+                if (line != null) {
+                    if (lore == null) {
+                        lore = new Text[this.baseLore.size()];
+                    }
+                    lore[i] = line;
+                }
+            }
+        }
+
+        this.lore = lore;
+    }
+
+    /**
+     * Create a template from an item. The item is copied, and later changes to it don't affect the template.
+     *
+     * @param item the item with placeholders in its name or lore
+     * @return the template
+     */
+    public static ItemTemplate of(ItemStack item) {
+        return new ItemTemplate(Objects.requireNonNull(item, "item"));
+    }
+
+    /**
+     * Get if the name or lore of the item has at least one placeholder.
+     *
+     * @return true if the rendered items can differ from the base item
+     */
+    public boolean hasPlaceholders() {
+        return this.name != null || this.lore != null;
+    }
+
+    /**
+     * Render the item, replacing each {@code {placeholder}} by the value returned by the resolver.
+     * Placeholders resolved to {@code null} are kept unchanged.
+     *
+     * @param resolver the function returning the value of a placeholder from its key
+     * @return a new item
+     */
+    public ItemStack render(Function<? super String, ?> resolver) {
+        Objects.requireNonNull(resolver, "resolver");
+
+        ItemStack item = this.base.clone();
+
+        if (this.baseMeta == null) {
+            return item;
+        }
+
+        ItemMeta meta = this.baseMeta.clone();
+
+        if (this.name != null) {
+            meta.setDisplayName(this.name.render(resolver));
+        }
+
+        if (this.lore != null) {
+            List<String> lore = new ArrayList<>(this.lore.length);
+
+            for (int i = 0; i < this.lore.length; i++) {
+                Text line = this.lore[i];
+                lore.add(line != null ? line.render(resolver) : this.baseLore.get(i));
+            }
+
+            meta.setLore(lore);
+        }
+
+        item.setItemMeta(meta);
+        return item;
+    }
+
+    /**
+     * Text parsed into literal and placeholder segments.
+     */
+    private static final class Text {
+
+        /**
+         * Literal segments, surrounding the placeholders: {@code literals.length == keys.length + 1}.
+         */
+        private final String[] literals;
+        private final String[] keys;
+        private final int literalsLength;
+
+        private Text(String[] literals, String[] keys) {
+            this.literals = literals;
+            this.keys = keys;
+
+            int length = 0;
+            for (String literal : literals) {
+                length += literal.length();
+            }
+            this.literalsLength = length;
+        }
+
+        /**
+         * Parse a text.
+         *
+         * @param text the text to parse
+         * @return the parsed text, or {@code null} if the text has no placeholder
+         */
+        static Text compile(String text) {
+            List<String> literals = new ArrayList<>();
+            List<String> keys = new ArrayList<>();
+            int start = 0;
+            int from = 0;
+            int open;
+
+            while ((open = text.indexOf('{', from)) >= 0) {
+                int close = text.indexOf('}', open + 1);
+
+                if (close < 0) {
+                    break;
+                }
+
+                open = text.lastIndexOf('{', close); // Innermost brace, for texts like "{{key}"
+                from = close + 1;
+
+                if (close == open + 1) { // Empty braces are not a placeholder
+                    continue;
+                }
+
+                literals.add(text.substring(start, open));
+                keys.add(text.substring(open + 1, close));
+                start = from;
+            }
+
+            if (keys.isEmpty()) {
+                return null;
+            }
+
+            literals.add(text.substring(start));
+
+            return new Text(literals.toArray(new String[0]), keys.toArray(new String[0]));
+        }
+
+        String render(Function<? super String, ?> resolver) {
+            StringBuilder builder = new StringBuilder(this.literalsLength + this.keys.length * ESTIMATED_VALUE_LENGTH);
+
+            for (int i = 0; i < this.keys.length; i++) {
+                builder.append(this.literals[i]);
+
+                Object value = resolver.apply(this.keys[i]);
+
+                if (value != null) {
+                    builder.append(value);
+                } else {
+                    builder.append('{').append(this.keys[i]).append('}');
+                }
+            }
+
+            return builder.append(this.literals[this.keys.length]).toString();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package fr.mrmicky.fastinv;
+
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Slot of a {@link FastInv} refreshed periodically by the tick scheduler of {@link FastInvManager}.
+ *
+ * @see FastInv#setLiveItem(int, int, Supplier, Consumer)
+ */
+final class LiveItem {
+
+    final int slot;
+    final int period;
+    final Supplier<ItemStack> supplier;
+    final Consumer<InventoryClickEvent> handler;
+    /**
+     * Tick of the scheduler at which the supplier is due.
+     */
+    long nextTick;
+    /**
+     * Copy of the last item written to the slot, as the supplier may modify and return the same item.
+     */
+    ItemStack lastItem;
+
+    LiveItem(int slot, int period, Supplier<ItemStack> supplier, Consumer<InventoryClickEvent> handler) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("The period must be positive: " + period);
+        }
+
+        this.slot = slot;
+        this.period = period;
+        this.supplier = supplier;
+        this.handler = handler;
+    }
+
+    LiveItem copy() {
+        return new LiveItem(this.slot, this.period, this.supplier, this.handler);
+    }
+}
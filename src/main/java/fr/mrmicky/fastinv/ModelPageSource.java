@@ -0,0 +1,74 @@
+package fr.mrmicky.fastinv;
+
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * {@link PageSource} over a list of domain objects, rendered to items only when their page is displayed.
+ * The list is read when a page is opened, so updating the content only requires updating the list.
+ *
+ * @param <T> the type of the domain objects
+ * @see PaginatedFastInv#setModelContent(List, Function, BiConsumer)
+ */
+public class ModelPageSource<T> implements PageSource {
+
+    private final List<T> models;
+    private final Function<? super T, ItemStack> renderer;
+    private final BiConsumer<InventoryClickEvent, ? super T> clickHandler;
+
+    /**
+     * Create a page source over a list of domain objects.
+     *
+     * @param models       the domain objects, read each time a page is loaded
+     * @param renderer     the function to create the item of a domain object
+     * @param clickHandler the click handler of the items, with the clicked domain object, or {@code null}
+     */
+    public ModelPageSource(List<T> models, Function<? super T, ItemStack> renderer,
+                           BiConsumer<InventoryClickEvent, ? super T> clickHandler) {
+        this.models = Objects.requireNonNull(models, "models");
+        this.renderer = Objects.requireNonNull(renderer, "renderer");
+        this.clickHandler = clickHandler;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return this.models.size();
+    }
+
+    /**
+     * Render the domain objects of a page.
+     */
+    @Override
+    public PageContent load(int offset, int length) {
+        int end = Math.min(offset + length, this.models.size());
+        PageContent content = new PageContent(length);
+
+        for (int i = offset; i < end; i++) {
+            T model = this.models.get(i);
+
+            if (this.clickHandler != null) {
+                content.add(this.renderer.apply(model), e -> this.clickHandler.accept(e, model));
+            } else {
+                content.add(this.renderer.apply(model));
+            }
+        }
+        return content;
+    }
+
+    /**
+     * Get the list of domain objects of this page source.
+     *
+     * @return the domain objects
+     */
+    public List<T> getModels() {
+        return this.models;
+    }
+}
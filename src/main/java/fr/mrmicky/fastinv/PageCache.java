@@ -0,0 +1,87 @@
+package fr.mrmicky.fastinv;
+
+import org.bukkit.inventory.ItemStack;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of rendered pages of a {@link PaginatedFastInv}, with least recently used eviction.
+ */
+final class PageCache {
+
+    private final int capacity;
+    private final Map<Integer, RenderedPage> pages;
+    /**
+     * Incremented on each invalidation, to drop pages rendered from outdated content.
+     */
+    private int generation;
+    private long hits;
+    private long misses;
+
+    PageCache(int capacity) {
+        this.capacity = capacity;
+        this.pages = new LinkedHashMap<Integer, RenderedPage>(16, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, RenderedPage> eldest) {
+                return size() > PageCache.this.capacity;
+            }
+        };
+    }
+
+    RenderedPage get(int page) {
+        RenderedPage rendered = this.pages.get(page);
+
+        if (rendered != null) {
+            this.hits++;
+        } else {
+            this.misses++;
+        }
+        return rendered;
+    }
+
+    boolean contains(int page) {
+        return this.pages.containsKey(page);
+    }
+
+    void put(int page, RenderedPage rendered) {
+        this.pages.put(page, rendered);
+    }
+
+    void invalidate() {
+        this.pages.clear();
+        this.generation++;
+    }
+
+    int capacity() {
+        return this.capacity;
+    }
+
+    int generation() {
+        return this.generation;
+    }
+
+    long hits() {
+        return this.hits;
+    }
+
+    long misses() {
+        return this.misses;
+    }
+
+    /**
+     * The content of a page with its page navigation items.
+     */
+    static final class RenderedPage {
+
+        final PageContent content;
+        final ItemStack previousItem;
+        final ItemStack nextItem;
+
+        RenderedPage(PageContent content, ItemStack previousItem, ItemStack nextItem) {
+            this.content = content;
+            this.previousItem = previousItem;
+            this.nextItem = nextItem;
+        }
+    }
+}
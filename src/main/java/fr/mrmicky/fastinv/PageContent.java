@@ -0,0 +1,119 @@
+package fr.mrmicky.fastinv;
+
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * The items and click handlers of one page of a {@link PaginatedFastInv}, in display order.
+ *
+ * @see PageSource
+ */
+public final class PageContent {
+
+    private final ItemStack[] items;
+    private final Consumer<InventoryClickEvent>[] handlers;
+    private int size;
+
+    /**
+     * Create an empty page content.
+     *
+     * @param capacity the maximum number of entries, usually the number of content slots
+     */
+    @SuppressWarnings("unchecked")
+    public PageContent(int capacity) {
+        this.items = new ItemStack[capacity];
+        this.handlers = new Consumer[capacity];
+    }
+
+    /**
+     * Create a page content from a list of items and a list of click handlers.
+     * The list of click handlers must have the same size as the list of items.
+     *
+     * @param items    the items of the page
+     * @param handlers the click handlers associated to the items
+     * @return the page content
+     */
+    public static PageContent of(List<ItemStack> items, List<Consumer<InventoryClickEvent>> handlers) {
+        Objects.requireNonNull(items, "items");
+        Objects.requireNonNull(handlers, "handlers");
+
+        if (items.size() != handlers.size()) {
+            throw new IllegalArgumentException("The items and handlers lists must have the same size");
+        }
+
+        PageContent content = new PageContent(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            content.add(items.get(i), handlers.get(i));
+        }
+        return content;
+    }
+
+    /**
+     * Add an entry with no click handler to this page.
+     *
+     * @param item the item to add
+     * @return this page content
+     */
+    public PageContent add(ItemStack item) {
+        return add(item, null);
+    }
+
+    /**
+     * Add an entry with a click handler to this page.
+     *
+     * @param item    the item to add
+     * @param handler the click handler associated to this item
+     * @return this page content
+     * @throws IllegalStateException if the page is full
+     */
+    public PageContent add(ItemStack item, Consumer<InventoryClickEvent> handler) {
+        if (this.size >= this.items.length) {
+            throw new IllegalStateException("The page is full (" + this.items.length + " entries)");
+        }
+
+        this.items[this.size] = item;
+        this.handlers[this.size++] = handler;
+        return this;
+    }
+
+    /**
+     * Get the number of entries in this page.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Get the item of an entry.
+     *
+     * @param index the index of the entry in this page
+     * @return the item
+     */
+    public ItemStack item(int index) {
+        checkIndex(index);
+        return this.items[index];
+    }
+
+    /**
+     * Get the click handler of an entry.
+     *
+     * @param index the index of the entry in this page
+     * @return the click handler, or {@code null}
+     */
+    public Consumer<InventoryClickEvent> handler(int index) {
+        checkIndex(index);
+        return this.handlers[index];
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + this.size);
+        }
+    }
+}
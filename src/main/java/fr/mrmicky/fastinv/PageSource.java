@@ -0,0 +1,26 @@
+package fr.mrmicky.fastinv;
+
+/**
+ * Source of the paginated content of a {@link PaginatedFastInv}, queried only for the displayed page.
+ * This allows large datasets to be displayed without holding an item and a click handler for every entry.
+ *
+ * @see PaginatedFastInv#setPageSource(PageSource)
+ */
+public interface PageSource {
+
+    /**
+     * Get the total number of entries, used to compute the number of pages.
+     *
+     * @return the number of entries
+     */
+    int size();
+
+    /**
+     * Load the entries displayed in a page.
+     *
+     * @param offset the index of the first entry of the page
+     * @param length the number of content slots, the maximum number of entries to load
+     * @return the content of the page, with at most {@code length} entries
+     */
+    PageContent load(int offset, int length);
+}
@@ -1,17 +1,26 @@
 package fr.mrmicky.fastinv;
 
+import fr.mrmicky.fastinv.PageCache.RenderedPage;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryCloseEvent;
 import org.bukkit.event.inventory.InventoryType;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.InventoryHolder;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.IntFunction;
+import java.util.logging.Level;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -20,8 +29,13 @@ import java.util.stream.IntStream;
  */
 public class PaginatedFastInv extends FastInv {
 
-    private final List<ItemStack> contentItems = new ArrayList<>();
-    private final List<Consumer<InventoryClickEvent>> contentHandlers = new ArrayList<>();
+    private List<ItemStack> contentItems = new ArrayList<>();
+    private List<Consumer<InventoryClickEvent>> contentHandlers = new ArrayList<>();
+    /**
+     * If the content lists are shared with a template, and must be copied before being modified.
+     */
+    private boolean sharedContent;
+    private PageSource pageSource;
 
     private List<Integer> contentSlots;
     private int page = 1;
@@ -31,6 +45,37 @@ public class PaginatedFastInv extends FastInv {
     private int previousPageSlot = -1;
     private int nextPageSlot = -1;
 
+    private final Consumer<InventoryClickEvent> previousPageHandler = e -> openPrevious();
+    private final Consumer<InventoryClickEvent> nextPageHandler = e -> openNext();
+
+    private Executor asyncExecutor;
+    private ItemStack loadingItem;
+    /**
+     * Incremented for each asynchronous page request, to drop the results of stale requests.
+     */
+    private volatile int pageRequest;
+    private boolean loading;
+    private int loadedSize;
+    /**
+     * Content displayed before the loading items of the page being loaded, rendered again if the loading fails.
+     */
+    private PageContent displayedContent;
+
+    private PageCache pageCache;
+    private int prefetchDistance;
+    /**
+     * Prefetch of the pages around the displayed page, one page per tick after a page change.
+     */
+    private BukkitTask prefetchTask;
+    /**
+     * Pages being prefetched asynchronously, so they are not requested again before being loaded.
+     */
+    private final Map<Integer, CompletableFuture<PageContent>> prefetchingPages = new HashMap<>();
+
+    private boolean diffRendering;
+    private long slotWrites;
+    private long skippedSlotWrites;
+
     /**
      * Create a new FastInv with a custom size.
      *
@@ -81,13 +126,51 @@ public class PaginatedFastInv extends FastInv {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Create a new PaginatedFastInv from a template, by copying its items, handlers, components and pagination
+     * settings instead of running the construction code again. The paginated content is shared with the template
+     * until it is modified.
+     *
+     * @param template the template to copy
+     * @see FastInvTemplate
+     */
+    protected PaginatedFastInv(FastInvTemplate template) {
+        super(template);
+
+        if (!template.paginated) {
+            throw new IllegalArgumentException("The template is not a paginated inventory");
+        }
+
+        this.pageSource = template.pageSource;
+        this.contentItems = template.contentItems;
+        this.contentHandlers = template.contentHandlers;
+        this.sharedContent = true;
+        this.contentSlots = template.contentSlots;
+        this.page = template.page;
+        this.previousPageItem = template.previousPageItem;
+        this.nextPageItem = template.nextPageItem;
+        this.previousPageSlot = template.previousPageSlot;
+        this.nextPageSlot = template.nextPageSlot;
+        this.diffRendering = template.diffRendering;
+        this.asyncExecutor = template.asyncExecutor;
+        this.loadingItem = template.loadingItem;
+
+        if (template.pageCacheCapacity > 0) {
+            setPageCache(template.pageCacheCapacity, template.prefetchDistance);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public void addContent(ItemStack item, Consumer<InventoryClickEvent> handler) {
+        checkNoPageSource();
+        copySharedContent();
+
         this.contentItems.add(item);
         this.contentHandlers.add(handler);
+        invalidatePageCache();
     }
 
     /**
@@ -95,8 +178,12 @@ public class PaginatedFastInv extends FastInv {
      */
     @Override
     public void addContent(Collection<ItemStack> content, Collection<Consumer<InventoryClickEvent>> handlers) {
+        checkNoPageSource();
+        copySharedContent();
+
         this.contentItems.addAll(content);
         this.contentHandlers.addAll(handlers);
+        invalidatePageCache();
     }
 
     /**
@@ -104,8 +191,12 @@ public class PaginatedFastInv extends FastInv {
      */
     @Override
     public void setContent(int index, ItemStack item, Consumer<InventoryClickEvent> handler) {
+        checkNoPageSource();
+        copySharedContent();
+
         this.contentItems.set(index, item);
         this.contentHandlers.set(index, handler);
+        invalidatePageCache();
     }
 
     /**
@@ -113,10 +204,34 @@ public class PaginatedFastInv extends FastInv {
      */
     @Override
     public void clearContent() {
+        checkNoPageSource();
+        invalidatePageCache();
+
+        if (this.sharedContent) {
+            this.contentItems = new ArrayList<>();
+            this.contentHandlers = new ArrayList<>();
+            this.sharedContent = false;
+            return;
+        }
+
         this.contentItems.clear();
         this.contentHandlers.clear();
     }
 
+    private void checkNoPageSource() {
+        if (this.pageSource != null) {
+            throw new IllegalStateException("The content is provided by a page source");
+        }
+    }
+
+    private void copySharedContent() {
+        if (this.sharedContent) {
+            this.contentItems = new ArrayList<>(this.contentItems);
+            this.contentHandlers = new ArrayList<>(this.contentHandlers);
+            this.sharedContent = false;
+        }
+    }
+
     /**
      * Replace the inventory items with the content of the previous page.
      * To open the inventory itself, use {@link #open(Player)}.
@@ -140,34 +255,579 @@ public class PaginatedFastInv extends FastInv {
      * @param page the page to open
      */
     public void openPage(int page) {
+        FlightRecorderEvents.PageEvent event = FlightRecorderEvents.beginPage();
+        long writes = inventoryWrites();
+
+        if (this.pageSource != null && this.asyncExecutor != null) {
+            openPageAsync(page);
+        } else {
+            openPageSync(page);
+        }
+
+        FlightRecorderEvents.commitPage(event, this, page, inventoryWrites() - writes);
+    }
+
+    private void openPageSync(int page) {
         int lastPage = lastPage();
 
         this.page = Math.max(1, Math.min(page, lastPage));
 
-        int index = this.contentSlots.size() * (this.page - 1);
+        beginBatch();
+        try {
+            if (this.pageCache != null) {
+                renderPage(cachedPage(this.page, lastPage));
+            } else {
+                int index = this.contentSlots.size() * (this.page - 1);
+
+                if (this.pageSource != null) {
+                    renderContent(this.pageSource.load(index, this.contentSlots.size()));
+                } else {
+                    for (int slot : this.contentSlots) {
+                        if (index >= this.contentItems.size()) {
+                            renderSlot(slot, null, null);
+                            continue;
+                        }
+
+                        renderSlot(slot, this.contentItems.get(index), this.contentHandlers.get(index++));
+                    }
+                }
+
+                renderNavigation(previousItem(this.page), nextItem(this.page, lastPage));
+            }
+        } finally {
+            commitBatch();
+        }
+
+        onPageChange(page);
+
+        if (this.pageCache != null) {
+            schedulePrefetch();
+        }
+    }
+
+    private void openPageAsync(int page) {
+        int request = ++this.pageRequest;
+        PageSource source = this.pageSource;
+        int length = this.contentSlots.size();
+        int knownLastPage = lastPage(this.loadedSize, length);
+
+        if (this.pageCache != null && page >= 1 && page <= knownLastPage) {
+            RenderedPage cached = this.pageCache.get(page);
+
+            if (cached != null) {
+                this.loading = false;
+                this.displayedContent = null;
+                this.page = page;
+
+                beginBatch();
+                try {
+                    renderPage(cached);
+                } finally {
+                    commitBatch();
+                }
+
+                onPageChange(page);
+                prefetchAsync(source, knownLastPage);
+                return;
+            }
+        }
+
+        if (!this.loading) { // Otherwise the loading items are already displayed
+            this.displayedContent = new PageContent(length);
+
+            for (int slot : this.contentSlots) {
+                this.displayedContent.add(itemAt(slot), handlerAt(slot));
+            }
+        }
+
+        beginBatch();
+        try {
+            for (int slot : this.contentSlots) {
+                renderSlot(slot, this.loadingItem, null);
+            }
+        } finally {
+            commitBatch();
+        }
+
+        Plugin plugin = FastInvManager.getPlugin();
+        this.loading = true;
+
+        CompletableFuture.supplyAsync(() -> {
+            if (request != this.pageRequest) {
+                return null; // Already stale, skip the query
+            }
+
+            int size = source.size();
+            int loadedPage = Math.max(1, Math.min(page, lastPage(size, length)));
+
+            return new LoadedPage(loadedPage, size, source.load(length * (loadedPage - 1), length));
+        }, this.asyncExecutor).whenComplete((loaded, ex) -> Bukkit.getScheduler().runTask(plugin, () -> {
+            // The player changed page or closed the inventory while loading
+            if (request != this.pageRequest) {
+                return;
+            }
+
+            PageContent displayedContent = this.displayedContent;
+            this.loading = false;
+            this.displayedContent = null;
+
+            if (ex != null) {
+                Throwable error = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                plugin.getLogger().log(Level.SEVERE, "Unable to load page " + page + " of " + getClass().getName(), error);
+
+                // Display the previous page again, so the page can be requested again
+                beginBatch();
+                try {
+                    if (displayedContent != null) {
+                        renderContent(displayedContent);
+                    } else {
+                        this.contentSlots.forEach(slot -> renderSlot(slot, null, null));
+                    }
+                    renderNavigation(previousItem(this.page), nextItem(this.page, lastPage(this.loadedSize, length)));
+                } finally {
+                    commitBatch();
+                }
+
+                onPageLoadError(page, error);
+                return;
+            }
+
+            if (this.loadedSize != loaded.size) {
+                this.loadedSize = loaded.size;
+                invalidatePageCache(); // The number of pages changed
+            }
+
+            int lastPage = lastPage(loaded.size, length);
+            RenderedPage rendered = renderPage(loaded.page, lastPage, loaded.content);
+
+            if (this.pageCache != null) {
+                this.pageCache.put(loaded.page, rendered);
+            }
+
+            this.page = loaded.page;
+
+            beginBatch();
+            try {
+                renderPage(rendered);
+            } finally {
+                commitBatch();
+            }
+
+            onPageChange(loaded.page);
+            prefetchAsync(source, lastPage);
+        }));
+    }
+
+    /**
+     * Drop the result of the page currently loaded asynchronously, if any.
+     */
+    public void cancelPageLoading() {
+        this.pageRequest++;
+        this.loading = false;
+        this.displayedContent = null;
+        this.prefetchingPages.clear(); // Drop the pages being prefetched
+        cancelPrefetch();
+    }
+
+    @Override
+    public void dispose() {
+        cancelPageLoading();
+
+        // The content lists may be shared with a template, so they are replaced instead of cleared
+        this.contentItems = new ArrayList<>();
+        this.contentHandlers = new ArrayList<>();
+        this.sharedContent = false;
+        this.pageSource = null;
+        this.previousPageItem = null;
+        this.nextPageItem = null;
+
+        if (this.pageCache != null) {
+            this.pageCache.invalidate();
+        }
+
+        super.dispose();
+    }
+
+    @Override
+    boolean handleClose(InventoryCloseEvent e) {
+        // The closing player is still a viewer during the event
+        if (getInventory().getViewers().size() <= 1) {
+            cancelPageLoading();
+        }
+
+        return super.handleClose(e);
+    }
+
+    private RenderedPage cachedPage(int page, int lastPage) {
+        RenderedPage rendered = this.pageCache.get(page);
+
+        if (rendered == null) {
+            rendered = renderPage(page, lastPage, loadContent(page));
+            this.pageCache.put(page, rendered);
+        }
+        return rendered;
+    }
+
+    /**
+     * Prefetch the pages around the displayed page from the next tick, one page per tick and nearest pages first,
+     * so the page change only renders the displayed page and the prefetch doesn't load several pages in one tick.
+     */
+    private void schedulePrefetch() {
+        if (this.prefetchTask != null || prefetchDistance() == 0) {
+            return;
+        }
+
+        this.prefetchTask = Bukkit.getScheduler().runTaskTimer(FastInvManager.getPlugin(), () -> {
+            // The inventory was closed, the page cache disabled, or all the pages around are cached
+            if (this.pageCache == null || viewerCount() == 0 || isDisposed() || !prefetchNext(lastPage())) {
+                cancelPrefetch();
+            }
+        }, 1, 1);
+    }
+
+    private void cancelPrefetch() {
+        if (this.prefetchTask != null) {
+            this.prefetchTask.cancel();
+            this.prefetchTask = null;
+        }
+    }
+
+    /**
+     * Prefetch the nearest page around the displayed page that is not cached.
+     *
+     * @param lastPage the index of the last page
+     * @return false if all the pages around the displayed page are cached
+     */
+    private boolean prefetchNext(int lastPage) {
+        int distance = prefetchDistance();
+
+        for (int i = 1; i <= distance; i++) {
+            for (int page : new int[]{this.page + i, this.page - i}) {
+                if (page >= 1 && page <= lastPage && !this.pageCache.contains(page)) {
+                    this.pageCache.put(page, renderPage(page, lastPage, loadContent(page)));
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void prefetchAsync(PageSource source, int lastPage) {
+        PageCache cache = this.pageCache;
+
+        if (cache == null) {
+            return;
+        }
+
+        Plugin plugin = FastInvManager.getPlugin();
+        int generation = cache.generation();
+        int length = this.contentSlots.size();
+        int distance = prefetchDistance();
+
+        for (int i = 1; i <= distance; i++) {
+            for (int page : new int[]{this.page + i, this.page - i}) {
+                if (page < 1 || page > lastPage || cache.contains(page) || this.prefetchingPages.containsKey(page)) {
+                    continue;
+                }
+
+                CompletableFuture<PageContent> future = CompletableFuture.supplyAsync(
+                        () -> source.load(length * (page - 1), length), this.asyncExecutor);
+                this.prefetchingPages.put(page, future);
+
+                future.whenComplete((content, ex) -> Bukkit.getScheduler().runTask(plugin, () -> {
+                    // Dropped when the inventory was closed or the cache invalidated
+                    if (!this.prefetchingPages.remove(page, future) || viewerCount() == 0) {
+                        return;
+                    }
+
+                    if (ex != null) {
+                        plugin.getLogger().log(Level.WARNING, "Unable to prefetch page " + page + " of " + getClass().getName(), ex);
+                        return;
+                    }
+
+                    // Drop pages loaded from an outdated content
+                    if (cache == this.pageCache && generation == cache.generation() && !cache.contains(page)) {
+                        cache.put(page, renderPage(page, lastPage, content));
+                    }
+                }));
+            }
+        }
+    }
+
+    private int prefetchDistance() {
+        // Never evict the current page with prefetched pages
+        return Math.min(this.prefetchDistance, (this.pageCache.capacity() - 1) / 2);
+    }
+
+    private PageContent loadContent(int page) {
+        int length = this.contentSlots.size();
+        int offset = length * (page - 1);
+
+        if (this.pageSource != null) {
+            return this.pageSource.load(offset, length);
+        }
+
+        int end = Math.min(offset + length, this.contentItems.size());
+        PageContent content = new PageContent(length);
+
+        for (int i = offset; i < end; i++) {
+            content.add(this.contentItems.get(i), this.contentHandlers.get(i));
+        }
+        return content;
+    }
+
+    private RenderedPage renderPage(int page, int lastPage, PageContent content) {
+        return new RenderedPage(content, previousItem(page), nextItem(page, lastPage));
+    }
+
+    private void renderPage(RenderedPage rendered) {
+        renderContent(rendered.content);
+        renderNavigation(rendered.previousItem, rendered.nextItem);
+    }
+
+    private void renderContent(PageContent content) {
+        int i = 0;
 
         for (int slot : this.contentSlots) {
-            if (index >= this.contentItems.size()) {
-                removeItem(slot);
+            if (i >= content.size()) {
+                renderSlot(slot, null, null);
                 continue;
             }
 
-            setItem(slot, contentItems.get(index), contentHandlers.get(index++));
+            renderSlot(slot, content.item(i), content.handler(i++));
+        }
+    }
+
+    private ItemStack previousItem(int page) {
+        return page > 1 && this.previousPageItem != null ? this.previousPageItem.apply(page - 1) : null;
+    }
+
+    private ItemStack nextItem(int page, int lastPage) {
+        return page < lastPage && this.nextPageItem != null ? this.nextPageItem.apply(page + 1) : null;
+    }
+
+    private void renderNavigation(ItemStack previousItem, ItemStack nextItem) {
+        if (this.previousPageSlot >= 0) {
+            renderSlot(this.previousPageSlot, previousItem, previousItem != null ? this.previousPageHandler : null);
         }
 
-        if (this.page > 1 && this.previousPageItem != null) {
-            setItem(this.previousPageSlot, this.previousPageItem.apply(this.page - 1), e -> openPrevious());
-        } else if (this.previousPageSlot >= 0) {
-            removeItem(this.previousPageSlot);
+        if (this.nextPageSlot >= 0) {
+            renderSlot(this.nextPageSlot, nextItem, nextItem != null ? this.nextPageHandler : null);
         }
+    }
 
-        if (this.page < lastPage && this.nextPageItem != null) {
-            setItem(this.nextPageSlot, this.nextPageItem.apply(this.page + 1), e -> openNext());
-        } else if (this.nextPageSlot >= 0) {
-            removeItem(this.nextPageSlot);
+    private void renderSlot(int slot, ItemStack item, Consumer<InventoryClickEvent> handler) {
+        if (this.diffRendering) {
+            if (updateItem(slot, item, handler)) {
+                this.slotWrites++;
+            } else {
+                this.skippedSlotWrites++;
+            }
+            return;
         }
 
-        onPageChange(page);
+        if (item == null) {
+            removeItem(slot);
+        } else {
+            setItem(slot, item, handler);
+        }
+        this.slotWrites++;
+    }
+
+    /**
+     * Enable a cache of the rendered pages: the content and the page navigation items of the recently displayed
+     * pages are kept, so opening them again does not query the page source or the page item functions.
+     * The cache is invalidated when the content, the content slots or the page items are modified.
+     * When a page source is used without asynchronous loading, {@link #invalidatePageCache()} must be called
+     * when its entries change.
+     * <p>
+     *     Pages around the displayed page can also be prefetched, on the main thread one page per tick after the page change or
+     *     on the asynchronous executor if {@link #setAsyncPageLoading(Executor) asynchronous loading} is enabled.
+     *     The prefetch distance is limited so the displayed page is never evicted by prefetched pages.
+     * </p>
+     *
+     * @param capacity         the maximum number of cached pages, or 0 to disable the cache
+     * @param prefetchDistance the number of pages to prefetch before and after the displayed page
+     */
+    public void setPageCache(int capacity, int prefetchDistance) {
+        if (capacity < 0 || prefetchDistance < 0) {
+            throw new IllegalArgumentException("Invalid page cache capacity or prefetch distance");
+        }
+
+        this.pageCache = capacity > 0 ? new PageCache(capacity) : null;
+        this.prefetchDistance = prefetchDistance;
+    }
+
+    /**
+     * Remove all the pages from the page cache, if enabled.
+     *
+     * @see #setPageCache(int, int)
+     */
+    public void invalidatePageCache() {
+        if (this.pageCache != null) {
+            this.pageCache.invalidate();
+        }
+        this.prefetchingPages.clear();
+    }
+
+    /**
+     * Return the number of page changes served from the page cache.
+     *
+     * @return the number of page cache hits
+     * @see #setPageCache(int, int)
+     */
+    public long pageCacheHits() {
+        return this.pageCache != null ? this.pageCache.hits() : 0;
+    }
+
+    /**
+     * Return the number of page changes that had to render the page because it was not cached.
+     *
+     * @return the number of page cache misses
+     * @see #setPageCache(int, int)
+     */
+    public long pageCacheMisses() {
+        return this.pageCache != null ? this.pageCache.misses() : 0;
+    }
+
+    /**
+     * Enable or disable the diff rendering of pages. When enabled, page changes only write the slots whose item
+     * or click handler differs from the one already displayed, see {@link #updateItem(int, ItemStack, Consumer)}.
+     * Items modified in place must then be set again with {@link #setItem(int, ItemStack, Consumer)}.
+     *
+     * @param diffRendering true to only write the changed slots on page changes
+     */
+    public void setDiffRendering(boolean diffRendering) {
+        this.diffRendering = diffRendering;
+    }
+
+    /**
+     * Return if the diff rendering of pages is enabled.
+     *
+     * @return true if page changes only write the changed slots
+     * @see #setDiffRendering(boolean)
+     */
+    public boolean isDiffRendering() {
+        return this.diffRendering;
+    }
+
+    /**
+     * Return the number of slots written by page changes.
+     *
+     * @return the number of slot writes since the creation or the last reset
+     */
+    public long slotWrites() {
+        return this.slotWrites;
+    }
+
+    /**
+     * Return the number of slot writes skipped by page changes because the slot was already up to date.
+     * This is always 0 if the diff rendering is disabled.
+     *
+     * @return the number of skipped slot writes since the creation or the last reset
+     * @see #setDiffRendering(boolean)
+     */
+    public long skippedSlotWrites() {
+        return this.skippedSlotWrites;
+    }
+
+    /**
+     * Reset the slot writes counters.
+     */
+    public void resetSlotWrites() {
+        this.slotWrites = 0;
+        this.skippedSlotWrites = 0;
+    }
+
+    /**
+     * Use a page source for the paginated content, instead of the content added with
+     * {@link #addContent(ItemStack, Consumer)}. The page source is only queried for the displayed page,
+     * so the memory used does not depend on the total number of entries.
+     * The current content is cleared, and the content methods can't be used while a page source is set.
+     *
+     * @param pageSource the page source to use, or {@code null} to use the content methods again
+     */
+    public void setPageSource(PageSource pageSource) {
+        this.contentItems = new ArrayList<>();
+        this.contentHandlers = new ArrayList<>();
+        this.sharedContent = false;
+        this.pageSource = pageSource;
+        this.loadedSize = 0;
+        cancelPageLoading();
+        invalidatePageCache();
+    }
+
+    /**
+     * Use a list of domain objects as the paginated content. Only the objects of the displayed page are rendered
+     * to items, when the page is opened. This is a shortcut to use a {@link ModelPageSource} as page source.
+     * If the list is modified, the page must be opened again to display the changes.
+     *
+     * @param models       the domain objects
+     * @param renderer     the function to create the item of a domain object
+     * @param clickHandler the click handler of the items, with the clicked domain object, or {@code null}
+     * @param <T>          the type of the domain objects
+     * @return the created page source
+     * @see #setPageSource(PageSource)
+     */
+    public <T> ModelPageSource<T> setModelContent(List<T> models, Function<? super T, ItemStack> renderer,
+                                                  BiConsumer<InventoryClickEvent, ? super T> clickHandler) {
+        ModelPageSource<T> source = new ModelPageSource<>(models, renderer, clickHandler);
+        setPageSource(source);
+        return source;
+    }
+
+    /**
+     * Get the page source of the paginated content.
+     *
+     * @return the page source, or {@code null} if the content is stored in this inventory
+     * @see #setPageSource(PageSource)
+     */
+    public PageSource getPageSource() {
+        return this.pageSource;
+    }
+
+    /**
+     * Load the pages of the page source asynchronously with the given executor.
+     * When a page is opened, the content slots immediately display the loading item, then the page source
+     * is queried on the executor and the page is displayed on the main thread once loaded.
+     * The result is dropped if another page was requested or the inventory was closed in the meantime.
+     * If the page source fails, the previously displayed page is displayed again
+     * and {@link #onPageLoadError(int, Throwable)} is called.
+     * <p>
+     *     While asynchronous loading is enabled, {@link #lastPage()} uses the number of entries of the last
+     *     loaded page, and is 0 before the first page is loaded. FastInv must be registered to use this feature.
+     * </p>
+     * <p>
+     *     For example, with the Bukkit scheduler:
+     *     {@code setAsyncPageLoading(task -> Bukkit.getScheduler().runTaskAsynchronously(plugin, task))}
+     * </p>
+     *
+     * @param executor the executor used to query the page source, or {@code null} to load pages on the main thread
+     * @see #setPageSource(PageSource)
+     * @see #setLoadingItem(ItemStack)
+     */
+    public void setAsyncPageLoading(Executor executor) {
+        this.asyncExecutor = executor;
+        cancelPageLoading();
+    }
+
+    /**
+     * Set the placeholder item displayed in the content slots while a page is loaded asynchronously.
+     *
+     * @param loadingItem the placeholder item, or {@code null} to leave the content slots empty while loading
+     * @see #setAsyncPageLoading(Executor)
+     */
+    public void setLoadingItem(ItemStack loadingItem) {
+        this.loadingItem = loadingItem;
+    }
+
+    /**
+     * Return if a page is currently loaded asynchronously.
+     *
+     * @return true if a page is loading
+     */
+    public boolean isLoading() {
+        return this.loading;
     }
 
     /**
@@ -177,6 +837,7 @@ public class PaginatedFastInv extends FastInv {
      */
     public void setContentSlots(List<Integer> contentSlots) {
         this.contentSlots = Objects.requireNonNull(contentSlots, "contentSlots");
+        invalidatePageCache();
     }
 
     /**
@@ -192,6 +853,7 @@ public class PaginatedFastInv extends FastInv {
 
         this.previousPageSlot = slot;
         this.previousPageItem = item;
+        invalidatePageCache();
     }
 
     /**
@@ -201,6 +863,7 @@ public class PaginatedFastInv extends FastInv {
      */
     public void previousPageItem(IntFunction<ItemStack> item) {
         this.previousPageItem = item;
+        invalidatePageCache();
     }
 
     /**
@@ -248,6 +911,7 @@ public class PaginatedFastInv extends FastInv {
 
         this.nextPageSlot = slot;
         this.nextPageItem = item;
+        invalidatePageCache();
     }
 
     /**
@@ -257,6 +921,7 @@ public class PaginatedFastInv extends FastInv {
      */
     public void nextPageItem(IntFunction<ItemStack> item) {
         this.nextPageItem = item;
+        invalidatePageCache();
     }
 
     /**
@@ -288,7 +953,7 @@ public class PaginatedFastInv extends FastInv {
             throw new IllegalArgumentException("Invalid slot: " + slot);
         }
 
-        this.previousPageSlot = slot;
+        this.nextPageSlot = slot;
     }
 
     /**
@@ -296,11 +961,32 @@ public class PaginatedFastInv extends FastInv {
      */
     @Override
     public void open(Player player) {
+        checkNotDisposed();
         openPage(this.page);
 
         super.open(player);
     }
 
+    @Override
+    void saveTo(FastInvTemplate template) {
+        super.saveTo(template);
+
+        template.pageSource = this.pageSource;
+        template.contentItems = new ArrayList<>(this.contentItems);
+        template.contentHandlers = new ArrayList<>(this.contentHandlers);
+        template.contentSlots = new ArrayList<>(this.contentSlots);
+        template.page = this.page;
+        template.previousPageItem = this.previousPageItem;
+        template.nextPageItem = this.nextPageItem;
+        template.previousPageSlot = this.previousPageSlot;
+        template.nextPageSlot = this.nextPageSlot;
+        template.diffRendering = this.diffRendering;
+        template.asyncExecutor = this.asyncExecutor;
+        template.loadingItem = this.loadingItem;
+        template.pageCacheCapacity = this.pageCache != null ? this.pageCache.capacity() : 0;
+        template.prefetchDistance = this.prefetchDistance;
+    }
+
     /**
      * Called when the page is changed.
      *
@@ -309,6 +995,17 @@ public class PaginatedFastInv extends FastInv {
     protected void onPageChange(int page) {
     }
 
+    /**
+     * Called on the main thread when a page could not be loaded asynchronously, after the error was logged.
+     * The previously displayed page is displayed again, so the page can be opened again.
+     *
+     * @param page  the page that could not be loaded
+     * @param error the error thrown by the page source
+     * @see #setAsyncPageLoading(Executor)
+     */
+    protected void onPageLoadError(int page, Throwable error) {
+    }
+
     /**
      * Return the index of the current page. The first page is 1.
      *
@@ -324,8 +1021,20 @@ public class PaginatedFastInv extends FastInv {
      * @return the index of the last page, starting at 1
      */
     public int lastPage() {
-        int last = this.contentItems.size() / this.contentSlots.size();
-        int remaining = this.contentItems.size() % this.contentSlots.size();
+        int contentSize;
+
+        if (this.pageSource == null) {
+            contentSize = this.contentItems.size();
+        } else {
+            contentSize = this.asyncExecutor != null ? this.loadedSize : this.pageSource.size();
+        }
+
+        return lastPage(contentSize, this.contentSlots.size());
+    }
+
+    private static int lastPage(int contentSize, int pageSize) {
+        int last = contentSize / pageSize;
+        int remaining = contentSize % pageSize;
 
         return remaining == 0 ? last : last + 1;
     }
@@ -349,4 +1058,17 @@ public class PaginatedFastInv extends FastInv {
     public boolean isLastPage() {
         return this.page == lastPage();
     }
+
+    private static final class LoadedPage {
+
+        private final int page;
+        private final int size;
+        private final PageContent content;
+
+        private LoadedPage(int page, int size, PageContent content) {
+            this.page = page;
+            this.size = size;
+            this.content = content;
+        }
+    }
 }
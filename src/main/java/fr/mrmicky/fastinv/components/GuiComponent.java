@@ -125,6 +125,32 @@ public abstract class GuiComponent implements ButtonContainer {
         }
     }
 
+    /**
+     * Create a copy of this component with its own slots and contents, to be added to another gui.
+     * This is used to create guis from a {@link fr.mrmicky.fastinv.FastInvTemplate}, and components
+     * must override it to support templates.
+     *
+     * @return a copy of this component, not yet added to any gui
+     * @throws UnsupportedOperationException if this component does not support copies
+     */
+    public GuiComponent copy() {
+        throw new UnsupportedOperationException(getClass().getName() + " does not support copies");
+    }
+
+    /**
+     * Copy the slots and contents of this component to another component, without applying it.
+     *
+     * @param target the component to copy to
+     */
+    protected void copyTo(GuiComponent target) {
+        target.slots.clear();
+        target.slots.addAll(this.slots);
+        target.contents.clear();
+        target.contents.addAll(this.contents);
+        target.contentHandlers.clear();
+        target.contentHandlers.addAll(this.contentHandlers);
+    }
+
     /**
      * Processes and adds the items to the provided gui.
      * <p>
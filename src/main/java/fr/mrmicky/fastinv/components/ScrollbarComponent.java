@@ -1,14 +1,9 @@
 package fr.mrmicky.fastinv.components;
 
 import fr.mrmicky.fastinv.FastInv;
-import org.bukkit.event.inventory.InventoryClickEvent;
-import org.bukkit.inventory.ItemStack;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.function.Consumer;
 
 /**
  * A nice little scrollbar for a gui.
@@ -18,9 +13,13 @@ import java.util.function.Consumer;
 public class ScrollbarComponent extends GuiComponent {
     private FastInv inv;
     /**
-     * Maps contents array index to gui slot.
+     * The gui slots of the scrollbar, in order.
      */
-    private final Map<Integer, Integer> scrollbarSlots = new HashMap<>();
+    private int[] scrollbarSlots = new int[0];
+    /**
+     * Contents index displayed in the first slot of the scrollbar.
+     */
+    private int offset;
 
     public ScrollbarComponent() {
         this(new ArrayList<>());
@@ -31,58 +30,120 @@ public class ScrollbarComponent extends GuiComponent {
     }
 
     public void scrollDown() {
-        if (inv == null) throw new IllegalStateException("ScrollbarComponent has not been initialized");
+        scrollBy(1);
+    }
 
-        if (scrollbarSlots.containsKey(contents.size() - 1)) return;
-        Map<Integer, Integer> newMappings = new HashMap<>();
-        for (Map.Entry<Integer, Integer> entry : scrollbarSlots.entrySet()) {
-            newMappings.put(entry.getKey() + 1, entry.getValue());
-        }
-        scrollbarSlots.clear();
-        scrollbarSlots.putAll(newMappings);
+    public void scrollUp() {
+        scrollBy(-1);
+    }
 
-        apply(inv);
+    /**
+     * Scroll by a number of entries, limited to the bounds of the contents.
+     *
+     * @param delta the number of entries to scroll, negative to scroll up
+     */
+    public void scrollBy(int delta) {
+        scrollTo(this.offset + delta);
     }
 
-    public void scrollUp() {
+    /**
+     * Scroll so that the entry at the given index is displayed in the first slot, limited to the bounds of the contents.
+     * Only the slots whose item changed are written: call {@link #apply(FastInv)} to rewrite all the slots,
+     * for example after an entry was modified in place.
+     *
+     * @param offset the index of the entry to display first
+     */
+    public void scrollTo(int offset) {
         if (inv == null) throw new IllegalStateException("ScrollbarComponent has not been initialized");
 
-        if (scrollbarSlots.containsKey(0)) return;
-        Map<Integer, Integer> newMappings = new HashMap<>();
-        for (Map.Entry<Integer, Integer> entry : scrollbarSlots.entrySet()) {
-            newMappings.put(entry.getKey() - 1, entry.getValue());
-        }
-        scrollbarSlots.clear();
-        scrollbarSlots.putAll(newMappings);
+        int newOffset = Math.max(0, Math.min(offset, maxOffset()));
+        if (newOffset == this.offset) return;
 
-        apply(inv);
+        this.offset = newOffset;
+        render(true);
+    }
+
+    /**
+     * Get the index of the entry displayed in the first slot.
+     *
+     * @return the current scroll offset
+     */
+    public int getOffset() {
+        return offset;
+    }
+
+    /**
+     * Get the maximum scroll offset, when the last entry is displayed in the last slot.
+     *
+     * @return the maximum scroll offset
+     */
+    public int maxOffset() {
+        return Math.max(0, contents.size() - scrollbarSlots.length);
+    }
+
+    public boolean canScrollUp() {
+        return offset > 0;
+    }
+
+    public boolean canScrollDown() {
+        return offset < maxOffset();
     }
 
     @Override
     public void setSlots(List<Integer> slots) {
         super.setSlots(slots);
-        this.scrollbarSlots.clear();
+        this.scrollbarSlots = this.slots.stream().mapToInt(Integer::intValue).toArray();
+        this.offset = Math.min(this.offset, maxOffset());
 
-        int i = 0;
-        for (int num : slots) {
-            this.scrollbarSlots.put(i, num);
-            i++;
+        if (inv != null) {
+            apply(inv);
         }
+    }
 
-        apply(inv);
+    @Override
+    public ScrollbarComponent copy() {
+        ScrollbarComponent copy = new ScrollbarComponent();
+        copyTo(copy);
+        copy.scrollbarSlots = this.scrollbarSlots.clone();
+        copy.offset = this.offset;
+        return copy;
     }
 
     @Override
     public void apply(FastInv inv) {
-        int i = 0;
-        for (ItemStack item : contents) {
-            if (scrollbarSlots.containsKey(i)) {
-                Consumer<InventoryClickEvent> handler = contentHandlers.get(i);
-                int slot = scrollbarSlots.get(i);
+        this.inv = inv;
+        this.offset = Math.min(this.offset, maxOffset());
 
-                inv.setItem(slot, item, handler);
+        render(false);
+    }
+
+    /**
+     * Write the visible entries to the scrollbar slots.
+     *
+     * @param diff true to only write the slots whose item or handler changed, when the view shifted
+     */
+    private void render(boolean diff) {
+        inv.beginBatch();
+        try {
+            for (int i = 0; i < scrollbarSlots.length; i++) {
+                int index = offset + i;
+
+                int slot = scrollbarSlots[i];
+
+                if (diff) {
+                    if (index < contents.size()) {
+                        inv.updateItem(slot, contents.get(index), contentHandlers.get(index));
+                    } else {
+                        inv.updateItem(slot, null, null);
+                    }
+                } else if (index < contents.size()) {
+                    inv.setItem(slot, contents.get(index), contentHandlers.get(index));
+                } else {
+                    inv.removeItem(slot);
+                }
             }
-            i++;
+        } finally {
+            inv.commitBatch();
         }
     }
 }
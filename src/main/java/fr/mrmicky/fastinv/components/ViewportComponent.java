@@ -0,0 +1,359 @@
+package fr.mrmicky.fastinv.components;
+
+import fr.mrmicky.fastinv.FastInv;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A rectangular window over a large two-dimensional grid, that can be panned on both axes.
+ * <p>
+ *     The window is defined by the slots of the component, which must form a rectangle,
+ *     for example with {@link fr.mrmicky.fastinv.InventoryScheme#bindComponent(char, Class)}.
+ *     The grid cells are either the contents of the component in row-major order, or provided by a {@link GridRenderer}.
+ *     When panning, the cells already displayed are shifted and only the newly exposed cells are rendered,
+ *     so {@link #refresh()} or {@link #apply(FastInv)} must be called after the grid data changed.
+ * </p>
+ */
+public class ViewportComponent extends GuiComponent {
+    private final int gridWidth;
+    private final int gridHeight;
+    private final GridRenderer renderer;
+
+    private FastInv inv;
+    /**
+     * The gui slots of the window, in row-major order.
+     */
+    private int[] viewSlots = new int[0];
+    private int viewRows;
+    private int viewColumns;
+    /**
+     * The displayed cells, in row-major order, or null if the window has not been rendered yet.
+     */
+    private ItemStack[] viewItems;
+    private Consumer<InventoryClickEvent>[] viewHandlers;
+    private int x;
+    private int y;
+
+    /**
+     * Create a viewport over the contents of the component, in row-major order.
+     *
+     * @param gridWidth the number of columns of the grid
+     */
+    public ViewportComponent(int gridWidth) {
+        this(gridWidth, -1, null);
+    }
+
+    /**
+     * Create a viewport over a grid rendered on demand.
+     *
+     * @param gridWidth  the number of columns of the grid
+     * @param gridHeight the number of rows of the grid
+     * @param renderer   the renderer of the grid cells
+     */
+    public ViewportComponent(int gridWidth, int gridHeight, GridRenderer renderer) {
+        this(new ArrayList<>(), gridWidth, gridHeight, renderer);
+    }
+
+    private ViewportComponent(List<Integer> slots, int gridWidth, int gridHeight, GridRenderer renderer) {
+        if (gridWidth <= 0 || (renderer != null && gridHeight < 0)) {
+            throw new IllegalArgumentException("Invalid grid size: " + gridWidth + "x" + gridHeight);
+        }
+
+        this.gridWidth = gridWidth;
+        this.gridHeight = gridHeight;
+        this.renderer = renderer;
+        setSlots(slots);
+    }
+
+    public void panUp() {
+        panBy(0, -1);
+    }
+
+    public void panDown() {
+        panBy(0, 1);
+    }
+
+    public void panLeft() {
+        panBy(-1, 0);
+    }
+
+    public void panRight() {
+        panBy(1, 0);
+    }
+
+    /**
+     * Pan the window by a number of columns and rows, limited to the bounds of the grid.
+     *
+     * @param dx the number of columns, negative to pan left
+     * @param dy the number of rows, negative to pan up
+     */
+    public void panBy(int dx, int dy) {
+        panTo(this.x + dx, this.y + dy);
+    }
+
+    /**
+     * Pan the window so that its top left slot displays the given grid cell, limited to the bounds of the grid.
+     * The cells already displayed are reused and only the newly exposed cells are rendered, and only the slots
+     * whose item or handler changed are written. Call {@link #refresh()} after the grid data changed.
+     *
+     * @param x the column of the grid cell
+     * @param y the row of the grid cell
+     */
+    public void panTo(int x, int y) {
+        if (inv == null) throw new IllegalStateException("ViewportComponent has not been initialized");
+
+        int newX = Math.max(0, Math.min(x, maxX()));
+        int newY = Math.max(0, Math.min(y, maxY()));
+        int dx = newX - this.x;
+        int dy = newY - this.y;
+
+        if (dx == 0 && dy == 0) return;
+
+        this.x = newX;
+        this.y = newY;
+
+        if (viewItems == null || Math.abs(dx) >= viewColumns || Math.abs(dy) >= viewRows) {
+            render(true);
+            return;
+        }
+
+        ItemStack[] items = new ItemStack[viewItems.length];
+        Consumer<InventoryClickEvent>[] handlers = newHandlers(viewHandlers.length);
+
+        for (int row = 0; row < viewRows; row++) {
+            for (int column = 0; column < viewColumns; column++) {
+                int i = row * viewColumns + column;
+                int oldRow = row + dy;
+                int oldColumn = column + dx;
+
+                if (oldRow >= 0 && oldRow < viewRows && oldColumn >= 0 && oldColumn < viewColumns) {
+                    // Already displayed, shift it
+                    items[i] = viewItems[oldRow * viewColumns + oldColumn];
+                    handlers[i] = viewHandlers[oldRow * viewColumns + oldColumn];
+                } else {
+                    items[i] = cellItem(newX + column, newY + row);
+                    handlers[i] = cellHandler(newX + column, newY + row);
+                }
+            }
+        }
+
+        display(items, handlers, true);
+    }
+
+    /**
+     * Render all the cells of the window again and write every slot, for example after the grid data
+     * or an item displayed by the window was modified.
+     */
+    public void refresh() {
+        if (inv == null) throw new IllegalStateException("ViewportComponent has not been initialized");
+
+        render(false);
+    }
+
+    /**
+     * Get the column of the grid displayed in the left column of the window.
+     *
+     * @return the horizontal position of the window
+     */
+    public int getX() {
+        return x;
+    }
+
+    /**
+     * Get the row of the grid displayed in the top row of the window.
+     *
+     * @return the vertical position of the window
+     */
+    public int getY() {
+        return y;
+    }
+
+    public int maxX() {
+        return Math.max(0, gridWidth - viewColumns);
+    }
+
+    public int maxY() {
+        return Math.max(0, gridHeight() - viewRows);
+    }
+
+    public int getGridWidth() {
+        return gridWidth;
+    }
+
+    /**
+     * Get the number of rows of the grid, computed from the contents if there is no renderer.
+     *
+     * @return the number of rows of the grid
+     */
+    public int gridHeight() {
+        if (renderer != null) {
+            return gridHeight;
+        }
+        return (contents.size() + gridWidth - 1) / gridWidth;
+    }
+
+    public int getViewRows() {
+        return viewRows;
+    }
+
+    public int getViewColumns() {
+        return viewColumns;
+    }
+
+    /**
+     * Set the slots of the window, which must form a rectangle.
+     *
+     * @param slots the slots of the window
+     * @throws IllegalArgumentException if the slots do not form a rectangle
+     */
+    @Override
+    public void setSlots(List<Integer> slots) {
+        int[] sorted = slots.stream().mapToInt(Integer::intValue).sorted().toArray();
+        int rows = 0;
+        int columns = 0;
+
+        if (sorted.length > 0) {
+            int first = sorted[0];
+            int last = sorted[sorted.length - 1];
+            rows = last / 9 - first / 9 + 1;
+            columns = last % 9 - first % 9 + 1;
+
+            for (int i = 0; i < sorted.length; i++) {
+                if (columns <= 0 || rows * columns != sorted.length
+                        || sorted[i] != first + (i / columns) * 9 + i % columns) {
+                    throw new IllegalArgumentException("The slots of a viewport must form a rectangle: " + slots);
+                }
+            }
+        }
+
+        super.setSlots(slots);
+        this.viewSlots = sorted;
+        this.viewRows = rows;
+        this.viewColumns = columns;
+        this.viewItems = null;
+        this.viewHandlers = null;
+
+        if (inv != null) {
+            apply(inv);
+        }
+    }
+
+    @Override
+    public ViewportComponent copy() {
+        ViewportComponent copy = new ViewportComponent(slots, gridWidth, gridHeight, renderer);
+        copyTo(copy);
+        copy.x = this.x;
+        copy.y = this.y;
+        return copy;
+    }
+
+    @Override
+    public void apply(FastInv inv) {
+        this.inv = inv;
+        this.x = Math.min(this.x, maxX());
+        this.y = Math.min(this.y, maxY());
+
+        render(false);
+    }
+
+    private void render(boolean diff) {
+        ItemStack[] items = new ItemStack[viewSlots.length];
+        Consumer<InventoryClickEvent>[] handlers = newHandlers(viewSlots.length);
+
+        for (int row = 0; row < viewRows; row++) {
+            for (int column = 0; column < viewColumns; column++) {
+                items[row * viewColumns + column] = cellItem(x + column, y + row);
+                handlers[row * viewColumns + column] = cellHandler(x + column, y + row);
+            }
+        }
+
+        display(items, handlers, diff);
+    }
+
+    /**
+     * Write the cells to the window slots.
+     *
+     * @param diff true to only write the slots whose item or handler changed, when the window was panned
+     */
+    private void display(ItemStack[] items, Consumer<InventoryClickEvent>[] handlers, boolean diff) {
+        this.viewItems = items;
+        this.viewHandlers = handlers;
+
+        inv.beginBatch();
+        try {
+            for (int i = 0; i < viewSlots.length; i++) {
+                if (diff) {
+                    inv.updateItem(viewSlots[i], items[i], handlers[i]);
+                } else if (items[i] != null) {
+                    inv.setItem(viewSlots[i], items[i], handlers[i]);
+                } else {
+                    inv.removeItem(viewSlots[i]);
+                }
+            }
+        } finally {
+            inv.commitBatch();
+        }
+    }
+
+    private ItemStack cellItem(int x, int y) {
+        if (x >= gridWidth) {
+            return null;
+        }
+
+        if (renderer != null) {
+            return y < gridHeight ? renderer.item(x, y) : null;
+        }
+
+        int index = y * gridWidth + x;
+        return index < contents.size() ? contents.get(index) : null;
+    }
+
+    private Consumer<InventoryClickEvent> cellHandler(int x, int y) {
+        if (x >= gridWidth) {
+            return null;
+        }
+
+        if (renderer != null) {
+            return y < gridHeight ? renderer.handler(x, y) : null;
+        }
+
+        int index = y * gridWidth + x;
+        return index < contentHandlers.size() ? contentHandlers.get(index) : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Consumer<InventoryClickEvent>[] newHandlers(int size) {
+        return new Consumer[size];
+    }
+
+    /**
+     * Renderer of the cells of a grid, called only for the cells being displayed.
+     */
+    @FunctionalInterface
+    public interface GridRenderer {
+
+        /**
+         * Render the item of a grid cell.
+         *
+         * @param x the column of the cell
+         * @param y the row of the cell
+         * @return the item of the cell, or {@code null} for an empty cell
+         */
+        ItemStack item(int x, int y);
+
+        /**
+         * Get the click handler of a grid cell.
+         *
+         * @param x the column of the cell
+         * @param y the row of the cell
+         * @return the click handler of the cell, or {@code null}
+         */
+        default Consumer<InventoryClickEvent> handler(int x, int y) {
+            return null;
+        }
+    }
+}